@@ -0,0 +1,122 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import shared.evaluation.AnnotatedSudoku;
+import shared.evaluation.ResultReason;
+import shared.evaluation.StepRecorder;
+import shared.evaluation.StrategyResult;
+import shared.evaluation.strategies.LastInCellStrategy;
+import shared.evaluation.strategies.LinearEliminationStrategy;
+import shared.model.Sudoku;
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+
+class TestAnnotatedSudoku {
+	@Test
+	void TestGivensEliminatePeers() {
+		Sudoku sudoku = new Sudoku();
+		sudoku.set(0, 5);
+		sudoku.set(80, 7);
+
+		StepRecorder recorder = new StepRecorder();
+		AnnotatedSudoku subject = new AnnotatedSudoku(sudoku, null, recorder);
+
+		for (int i = 1; i < 80; i++) {
+			boolean seesFive = SudokuHouses.peers(0).contains(i);
+			assertEquals(!seesFive, (subject.getCandidateMask(i) & SudokuCandidates.candidateBit(5)) != 0);
+		}
+		assertEquals(0, subject.getCandidateMask(0));
+		assertEquals(9, subject.getCandidateCount(40));
+		assertTrue(recorder.getSteps().isEmpty());
+	}
+
+	@Test
+	void TestPlacementEliminatesPeers() {
+		LinearEliminationStrategy source = new LinearEliminationStrategy();
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku(), source, null);
+
+		assertTrue(subject.setValue(40, 3));
+		assertFalse(subject.setValue(40, 3));
+
+		for (int peer : SudokuHouses.peerIndices(40)) {
+			assertEquals(8, subject.getCandidateCount(peer));
+			assertTrue(subject.getChangedCells().contains(peer));
+		}
+		assertEquals(9, subject.getCandidateCount(0));
+	}
+
+	@Test
+	void TestImpliedEliminationsReported() {
+		LinearEliminationStrategy source = new LinearEliminationStrategy();
+		Sudoku sudoku = new Sudoku();
+		sudoku.set(0, 1);
+
+		StepRecorder recorder = new StepRecorder();
+		AnnotatedSudoku subject = new AnnotatedSudoku(sudoku, source, recorder);
+		assertEquals(20, recorder.getSteps().size());
+
+		//Placing a value reports the placement first, then the eliminations it implies
+		recorder.clear();
+		LastInCellStrategy placer = new LastInCellStrategy();
+		subject.applyResults(Arrays.asList(placer.makeSolutionResult(80, 2, new ResultReason(SudokuHouses.cell(80)))));
+
+		assertEquals(21, recorder.getSteps().size());
+		assertEquals(StrategyResult.Type.SOLUTION, recorder.getSteps().get(0).getType());
+		for (int step = 1; step < 21; step++) {
+			assertEquals(source, recorder.getSteps().get(step).getSource());
+			assertEquals(2, recorder.getSteps().get(step).getValue());
+		}
+	}
+
+	@Test
+	void TestHouseMasksFollowChanges() {
+		Sudoku sudoku = new Sudoku();
+		sudoku.set(0, 5);
+		AnnotatedSudoku subject = new AnnotatedSudoku(sudoku);
+
+		subject.setValue(40, 3);
+		subject.removeCandidate(10, 7);
+		subject.setValue(80, 9);
+		subject.unsetValue(80, 9);
+		subject.addCandidate(0, 1);
+		for (int candidate = 3; candidate <= 9; candidate++) {
+			subject.removeCandidate(20, candidate);
+		}
+		assertHouseMasksMatch(subject);
+
+		int row = SudokuHouses.housesOf(40)[0];
+		assertEquals(SudokuCandidates.candidateBit(3), subject.getSolvedMask(row));
+		assertEquals(0, subject.getPositionMask(row, 3));
+	}
+
+	private void assertHouseMasksMatch(AnnotatedSudoku subject) {
+		for (int house = 0; house < SudokuHouses.HOUSE_COUNT; house++) {
+			int[] cells = SudokuHouses.cellsOf(house);
+			int solvedMask = 0;
+			for (int digit = 1; digit <= 9; digit++) {
+				int positions = 0;
+				for (int p = 0; p < 9; p++) {
+					if ((subject.getCandidateMask(cells[p]) & SudokuCandidates.candidateBit(digit)) != 0) {
+						positions |= 1 << p;
+					}
+					if (subject.getValue(cells[p]) == digit) {
+						solvedMask |= SudokuCandidates.candidateBit(digit);
+					}
+				}
+				assertEquals(positions, subject.getPositionMask(house, digit));
+			}
+			assertEquals(solvedMask, subject.getSolvedMask(house));
+		}
+
+		for (int i = 0; i < 81; i++) {
+			assertEquals(subject.getCandidateCount(i) == 2, subject.getBivalueCells().contains(i));
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import shared.io.SDMConverter;
+import shared.logging.AsyncEventSink;
+import shared.logging.EventLevel;
+import shared.logging.EventType;
+import shared.logging.SudokuEvent;
+import shared.model.Sudoku;
+
+class TestAsyncEventSink {
+	private static final String PUZZLE = "012753649943682175675491283154237896369845721287169534521974368438526917796318450";
+
+	@Test
+	void TestFailuresAreWrittenOnce() throws IOException {
+		Path issueFile = Files.createTempFile("issues", ".sdm");
+		issueFile.toFile().deleteOnExit();
+		Sudoku board = new SDMConverter().fromString(PUZZLE);
+
+		StringBuffer console = new StringBuffer();
+		try (AsyncEventSink sink = new AsyncEventSink(console, EventLevel.INFO, issueFile)) {
+			assertFalse(sink.isEnabled(EventLevel.DEBUG));
+			sink.publish(new SudokuEvent(EventLevel.DEBUG, EventType.GRADE_STEP, "hidden"));
+			sink.publish(new SudokuEvent(EventLevel.ERROR, EventType.SOLVER_FAILURE, "failed", board, null, Arrays.asList("detail")));
+			sink.flush();
+
+			assertTrue(console.toString().startsWith("[ERROR] SOLVER_FAILURE: failed\n"));
+			assertTrue(console.toString().contains("detail\n"));
+			assertFalse(console.toString().contains("hidden"));
+		}
+
+		//Known issues are read back, so a new sink doesn't repeat them
+		try (AsyncEventSink sink = new AsyncEventSink(new StringBuffer(), EventLevel.INFO, issueFile)) {
+			sink.publish(new SudokuEvent(EventLevel.ERROR, EventType.SOLVER_FAILURE, "failed again", board, null, null));
+		}
+
+		List<String> lines = Files.readAllLines(issueFile, StandardCharsets.UTF_8);
+		assertEquals(Arrays.asList(PUZZLE), lines);
+	}
+
+	@Test
+	void TestBadOutputDoesNotStopWriter() {
+		StringBuilder written = new StringBuilder();
+		Appendable console = new Appendable() {
+			@Override
+			public Appendable append(CharSequence text) {
+				if (text.toString().contains("bad")) {
+					throw new IllegalStateException("Refused");
+				}
+				written.append(text);
+				return this;
+			}
+
+			@Override
+			public Appendable append(CharSequence text, int start, int end) {
+				return append(text.subSequence(start, end));
+			}
+
+			@Override
+			public Appendable append(char c) {
+				written.append(c);
+				return this;
+			}
+		};
+
+		AsyncEventSink sink = new AsyncEventSink(console, EventLevel.INFO, null);
+		sink.publish(new SudokuEvent(EventLevel.INFO, EventType.GRADE_PROGRESS, "bad"));
+		sink.publish(new SudokuEvent(EventLevel.INFO, EventType.GRADE_PROGRESS, "good"));
+		sink.flush();
+		assertTrue(written.toString().contains("good"));
+
+		//Flushing a closed sink returns right away
+		sink.close();
+		sink.flush();
+	}
+}
@@ -0,0 +1,49 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+
+class TestCandidates {
+
+	@Test
+	void TestMasks() {
+		SudokuCandidates subject = new SudokuCandidates();
+		assertEquals(SudokuCandidates.ALL_CANDIDATES, subject.getCandidateMask(40));
+		assertEquals(9, subject.candidateCount(40));
+
+		assertTrue(subject.removeCandidate(40, 3));
+		assertFalse(subject.removeCandidate(40, 3));
+		assertFalse(subject.hasCandidate(40, 3));
+		assertEquals(8, subject.candidateCount(40));
+		assertEquals(SudokuCandidates.ALL_CANDIDATES & ~SudokuCandidates.candidateBit(3), subject.getCandidateMask(40));
+
+		assertTrue(subject.addCandidate(40, 3));
+		assertEquals(9, subject.candidateCount(40));
+
+		subject.removeAllCandidatesAt(40);
+		assertEquals(0, subject.candidateCount(40));
+		assertFalse(subject.getNonEmpty().contains(40));
+		assertEquals(80, subject.getNonEmpty().size());
+	}
+
+	@Test
+	void TestBulkRemoval() {
+		SudokuCandidates subject = new SudokuCandidates();
+		subject.removeCandidate(1, 5);
+
+		assertEquals(19, subject.removeCandidate(SudokuHouses.peerIndices(0), 5));
+		assertEquals(0, subject.removeCandidate(SudokuHouses.peers(0), 5));
+
+		assertTrue(subject.hasCandidate(0, 5));
+		for (int peer : SudokuHouses.peerIndices(0)) {
+			assertFalse(subject.hasCandidate(peer, 5));
+			assertEquals(8, subject.candidateCount(peer));
+		}
+	}
+}
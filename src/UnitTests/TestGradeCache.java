@@ -0,0 +1,84 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.Difficulty;
+import shared.evaluation.GradeCache;
+import shared.evaluation.SudokuSolver;
+import shared.evaluation.strategies.LastInCellStrategy;
+import shared.evaluation.strategies.LastInHouseStrategy;
+import shared.evaluation.strategies.LinearEliminationStrategy;
+import shared.io.SDMConverter;
+import shared.model.CompactSudoku;
+import shared.model.Sudoku;
+
+class TestGradeCache {
+	private static final String SOLUTION = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+	private SDMConverter converter = new SDMConverter();
+
+	@Test
+	void TestLeastRecentlyUsedEviction() {
+		GradeCache cache = new GradeCache(2);
+		CompactSudoku first = boardWithHole(0);
+		CompactSudoku second = boardWithHole(1);
+		CompactSudoku third = boardWithHole(2);
+
+		cache.put(first, Difficulty.EASY, null);
+		cache.put(second, Difficulty.MEDIUM, null);
+
+		//Touching the first entry makes the second one the eviction candidate
+		assertEquals(Difficulty.EASY, cache.get(first).getDifficulty());
+		cache.put(third, Difficulty.HARD, null);
+
+		assertNull(cache.get(second));
+		assertNotNull(cache.get(first));
+		assertNotNull(cache.get(third));
+
+		assertEquals(2, cache.size());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	void TestSolverUsesCache() {
+		ASudokuStrategy[] strats = {
+			new LinearEliminationStrategy(),
+			new LastInHouseStrategy(),
+			new LastInCellStrategy()
+		};
+		SudokuSolver solver = new SudokuSolver(strats);
+		GradeCache cache = new GradeCache(16, true);
+		solver.setGradeCache(cache);
+
+		Sudoku puzzle = converter.fromString(SOLUTION);
+		for (int i = 0; i < 81; i += 4) {
+			puzzle.set(i, 0);
+		}
+
+		Difficulty grade = solver.grade(puzzle);
+		assertEquals(grade, solver.grade(puzzle));
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+
+		//Solution lookups are not grades, so they don't count
+		assertEquals(SOLUTION, converter.toString(solver.getSolution(puzzle)));
+		assertEquals(1, cache.getHitCount());
+
+		//Grades depend on logging implied eliminations, so changing it starts over
+		solver.setLogImpliedEliminations(false);
+		assertEquals(0, cache.size());
+	}
+
+	private CompactSudoku boardWithHole(int index) {
+		Sudoku sudoku = converter.fromString(SOLUTION);
+		sudoku.set(index, 0);
+		return new CompactSudoku(sudoku);
+	}
+}
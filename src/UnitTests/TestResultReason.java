@@ -0,0 +1,69 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import shared.evaluation.ResultReason;
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+class TestResultReason {
+	@Test
+	void TestCellReason() {
+		SudokuSelection cells = new SudokuSelection();
+		cells.add(3);
+		cells.add(70);
+
+		ResultReason subject = new ResultReason(cells);
+		cells.add(5);
+
+		assertEquals(2, subject.size());
+		assertTrue(subject.contains(70));
+		assertFalse(subject.contains(5));
+		assertFalse(subject.hasNotesFor(3));
+		assertEquals(new SudokuSelection(SudokuHouses.cell(3)).getUnionWith(SudokuHouses.cell(70)), subject.getCells());
+	}
+
+	@Test
+	void TestNoteReason() {
+		int pairMask = SudokuCandidates.candidateBit(2) | SudokuCandidates.candidateBit(7);
+		ResultReason subject = new ResultReason(new int[] {80, 12}, pairMask);
+
+		assertEquals(2, subject.size());
+		assertEquals(pairMask, subject.getNoteMask(12));
+		assertEquals(pairMask, subject.getNoteMask(80));
+		assertEquals(0, subject.getNoteMask(13));
+
+		SudokuCandidates notes = subject.getNotes();
+		assertTrue(notes.hasCandidate(80, 7));
+		assertFalse(notes.hasCandidate(80, 3));
+		assertEquals(0, notes.getCandidateMask(0));
+
+		//Round trip through the full candidate form
+		ResultReason copy = new ResultReason(notes);
+		assertEquals(subject.getCells(), copy.getCells());
+		assertEquals(pairMask, copy.getNoteMask(80));
+	}
+
+	@Test
+	void TestMixedNoteReason() {
+		int pairMask = SudokuCandidates.candidateBit(2) | SudokuCandidates.candidateBit(7);
+		int tripleMask = pairMask | SudokuCandidates.candidateBit(9);
+		ResultReason subject = new ResultReason(new int[] {40, 3, 12}, new int[] {tripleMask, pairMask, 0});
+
+		//The empty mask leaves index 12 out
+		assertEquals(2, subject.size());
+		assertFalse(subject.contains(12));
+		assertEquals(pairMask, subject.getNoteMask(3));
+		assertEquals(tripleMask, subject.getNoteMask(40));
+
+		//Same reason as the full candidate form
+		ResultReason copy = new ResultReason(subject.getNotes());
+		assertEquals(subject.getCells(), copy.getCells());
+		assertEquals(tripleMask, copy.getNoteMask(40));
+	}
+}
@@ -5,10 +5,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
+import shared.model.SudokuHouses;
 import shared.model.SudokuSelection;
 
 class TestSelection {
@@ -117,4 +123,109 @@ class TestSelection {
 		assertFalse(subject.contains(2));
 		assertFalse(subject.contains(5));
 	}
+
+	@Test
+	void TestSetAlgebra() {
+		SudokuSelection row = SudokuSelection.row(7);
+		SudokuSelection col = SudokuSelection.column(8);
+
+		SudokuSelection union = row.getUnionWith(col);
+		assertEquals(17, union.size());
+		assertTrue(union.containsAll(row));
+		assertTrue(union.containsAll(col));
+
+		SudokuSelection intersection = row.getIntersectionWith(col);
+		assertEquals(1, intersection.size());
+		assertTrue(intersection.contains(71));
+
+		SudokuSelection difference = row.getDifferenceWith(col);
+		assertEquals(8, difference.size());
+		assertFalse(difference.contains(71));
+
+		SudokuSelection inverse = row.getInverse();
+		assertEquals(72, inverse.size());
+		assertFalse(inverse.contains(63));
+		assertTrue(inverse.contains(80));
+		assertEquals(SudokuSelection.all(), inverse.getUnionWith(row));
+
+		//Operands are left unchanged
+		assertEquals(9, row.size());
+		assertEquals(9, col.size());
+	}
+
+	@Test
+	void TestIterationOrder() {
+		SudokuSelection subject = new SudokuSelection(Arrays.asList(80, 0, 64, 63, 5));
+
+		List<Integer> visited = new ArrayList<>();
+		for (Integer index : subject) {
+			visited.add(index);
+		}
+
+		assertEquals(Arrays.asList(0, 5, 63, 64, 80), visited);
+	}
+
+	@Test
+	void TestRandomStaysInside() {
+		SudokuSelection subject = SudokuSelection.column(4);
+		Random randomizer = new Random(1);
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue(subject.contains(subject.getRandom(randomizer)));
+		}
+
+		assertEquals(70, new SudokuSelection(70).getRandom(randomizer));
+	}
+
+	@Test
+	void TestSharedHouses() {
+		for (int i = 0; i < 9; i++) {
+			assertEquals(SudokuSelection.row(i), SudokuHouses.house(SudokuHouses.FIRST_ROW + i));
+			assertEquals(SudokuSelection.column(i), SudokuHouses.house(SudokuHouses.FIRST_COLUMN + i));
+			assertEquals(SudokuSelection.square(i), SudokuHouses.house(SudokuHouses.FIRST_SQUARE + i));
+		}
+
+		for (int i = 0; i < 81; i++) {
+			int[] peerIndices = SudokuHouses.peerIndices(i);
+			assertEquals(20, peerIndices.length);
+			SudokuSelection fromIndices = new SudokuSelection();
+			for (int peer : peerIndices) {
+				fromIndices.add(peer);
+			}
+			assertEquals(SudokuHouses.peers(i), fromIndices);
+
+			for (int house : SudokuHouses.housesOf(i)) {
+				assertTrue(SudokuHouses.house(house).contains(i));
+			}
+		}
+
+		assertThrows(UnsupportedOperationException.class, () -> SudokuHouses.row(0).add(40));
+		assertThrows(UnsupportedOperationException.class, () -> SudokuHouses.peers(0).clear());
+		assertThrows(UnsupportedOperationException.class, () -> SudokuHouses.all().removeAll(SudokuHouses.row(0)));
+
+		//Copies handed out by SudokuSelection stay modifiable
+		SudokuSelection copy = SudokuSelection.affectedBy(0);
+		assertTrue(copy.add(0));
+		assertEquals(20, SudokuHouses.peers(0).size());
+	}
+
+	@Test
+	void TestPrimitiveIteration() {
+		SudokuSelection subject = SudokuSelection.column(2).getUnionWith(SudokuSelection.row(8));
+
+		PrimitiveIterator.OfInt iterator = subject.iterator();
+		List<Integer> iterated = new ArrayList<>();
+		while (iterator.hasNext()) {
+			iterated.add(iterator.nextInt());
+		}
+		assertThrows(NoSuchElementException.class, () -> iterator.nextInt());
+
+		List<Integer> visited = new ArrayList<>();
+		subject.forEachIndex(index -> visited.add(index));
+
+		assertEquals(subject.size(), iterated.size());
+		assertEquals(iterated, visited);
+		assertTrue(Arrays.equals(iterated.stream().mapToInt(Integer::intValue).toArray(), subject.indices().toArray()));
+		assertEquals(2 + 11 + 20 + 29 + 38 + 47 + 56 + 65 + (72 + 73 + 74 + 75 + 76 + 77 + 78 + 79 + 80), subject.indices().sum());
+	}
 }
@@ -0,0 +1,286 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.AUnitSudokuStrategy;
+import shared.evaluation.AnnotatedSudokuView;
+import shared.evaluation.BacktrackingSolver;
+import shared.evaluation.BatchGrades;
+import shared.evaluation.BoundedGrade;
+import shared.evaluation.CancellationToken;
+import shared.evaluation.DancingLinksSolver;
+import shared.evaluation.Difficulty;
+import shared.evaluation.GradeLimits;
+import shared.evaluation.ISudokuSolver;
+import shared.evaluation.StepRecorder;
+import shared.evaluation.StrategyResult;
+import shared.evaluation.SudokuSolver;
+import shared.evaluation.strategies.FishStrategy;
+import shared.evaluation.strategies.IntersectionRemovalStrategy;
+import shared.evaluation.strategies.LastInCellStrategy;
+import shared.evaluation.strategies.LastInHouseStrategy;
+import shared.evaluation.strategies.LinearEliminationStrategy;
+import shared.evaluation.strategies.SubsetStrategy;
+import shared.evaluation.strategies.XYWingStrategy;
+import shared.io.SDMConverter;
+import shared.model.Sudoku;
+
+class TestSolvers {
+	//Unique solution, but needs more than singles to solve by hand
+	private static final String HARD_PUZZLE = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+	private static final String HARD_SOLUTION = "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+
+	private SDMConverter converter = new SDMConverter();
+
+	@Test
+	void TestBacktrackingUnique() {
+		checkUnique(new BacktrackingSolver());
+	}
+
+	@Test
+	void TestDancingLinksUnique() {
+		checkUnique(new DancingLinksSolver());
+	}
+
+	@Test
+	void TestBacktrackingCounts() {
+		checkCounts(new BacktrackingSolver());
+	}
+
+	@Test
+	void TestDancingLinksCounts() {
+		checkCounts(new DancingLinksSolver());
+	}
+
+	@Test
+	void TestEnginesAgree() {
+		ISudokuSolver backtracking = new BacktrackingSolver();
+		ISudokuSolver dancingLinks = new DancingLinksSolver();
+		Random randomizer = new Random(11);
+
+		//Dig random holes into a known solution, so some boards are unique and some are not
+		for (int attempt = 0; attempt < 40; attempt++) {
+			Sudoku puzzle = converter.fromString(HARD_SOLUTION);
+			int holes = 40 + randomizer.nextInt(25);
+			for (int hole = 0; hole < holes; hole++) {
+				puzzle.set(randomizer.nextInt(81), 0);
+			}
+
+			assertEquals(backtracking.countSolutions(puzzle, 3), dancingLinks.countSolutions(puzzle, 3));
+
+			Sudoku first = backtracking.getSolution(puzzle);
+			Sudoku second = dancingLinks.getSolution(puzzle);
+			assertEquals(first == null, second == null);
+			if (first != null) {
+				assertEquals(first, second);
+			}
+		}
+	}
+
+	@Test
+	void TestGradeAllKeepsOrder() {
+		ASudokuStrategy[] strats = {
+			new LinearEliminationStrategy(),
+			new LastInHouseStrategy(),
+			new LastInCellStrategy()
+		};
+		SudokuSolver grader = new SudokuSolver(strats);
+		Random randomizer = new Random(5);
+
+		List<Sudoku> batch = new ArrayList<>();
+		for (int attempt = 0; attempt < 60; attempt++) {
+			Sudoku puzzle = converter.fromString(HARD_SOLUTION);
+			int holes = 30 + randomizer.nextInt(30);
+			for (int hole = 0; hole < holes; hole++) {
+				puzzle.set(randomizer.nextInt(81), 0);
+			}
+			batch.add(puzzle);
+		}
+
+		BatchGrades result = grader.gradeAll(batch.stream(), new ForkJoinPool(4));
+
+		assertEquals(batch.size(), result.size());
+		assertEquals(0, result.getFailureCount());
+		assertEquals(4, result.getParallelism());
+		for (int i = 0; i < batch.size(); i++) {
+			Difficulty expected = grader.grade(batch.get(i));
+			assertEquals(expected, result.getGrades().get(i));
+		}
+		assertEquals(result.getGrades(), grader.gradeAll(batch).getGrades());
+	}
+
+	@Test
+	void TestBoundedGrading() {
+		ASudokuStrategy[] strats = {
+			new LinearEliminationStrategy(),
+			new LastInHouseStrategy(),
+			new LastInCellStrategy()
+		};
+		SudokuSolver grader = new SudokuSolver(strats);
+
+		Sudoku easy = converter.fromString(HARD_SOLUTION);
+		for (int i = 0; i < 81; i += 4) {
+			easy.set(i, 0);
+		}
+		Difficulty full = grader.grade(easy);
+		assertTrue(full != Difficulty.UNGRADED);
+
+		BoundedGrade withinCeiling = grader.grade(easy, GradeLimits.ceiling(full));
+		assertEquals(BoundedGrade.Outcome.GRADED, withinCeiling.getOutcome());
+		assertEquals(full, withinCeiling.getDifficulty());
+		assertTrue(withinCeiling.isGraded());
+
+		//The hard puzzle gets stuck with these strategies, so a ceiling below the last one stops there
+		BoundedGrade stuck = grader.grade(converter.fromString(HARD_PUZZLE), GradeLimits.ceiling(Difficulty.EASY));
+		assertEquals(BoundedGrade.Outcome.EXCEEDS_CEILING, stuck.getOutcome());
+		assertFalse(stuck.isGraded());
+
+		BoundedGrade outOfSteps = grader.grade(easy, new GradeLimits(Difficulty.ANY, 1, Long.MAX_VALUE, null));
+		assertEquals(BoundedGrade.Outcome.BUDGET_EXHAUSTED, outOfSteps.getOutcome());
+
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		BoundedGrade cancelled = grader.grade(easy, new GradeLimits(Difficulty.ANY, Integer.MAX_VALUE, Long.MAX_VALUE, token));
+		assertEquals(BoundedGrade.Outcome.CANCELLED, cancelled.getOutcome());
+		assertFalse(cancelled.isGraded());
+	}
+
+	@Test
+	void TestWorklistMatchesFullScan() {
+		AUnitSudokuStrategy[] unitStrats = {
+			new LastInHouseStrategy(),
+			new LastInCellStrategy(),
+			new IntersectionRemovalStrategy(),
+			new SubsetStrategy(2, 2, Difficulty.HARD),
+			new SubsetStrategy(3, 4, Difficulty.EXPERT),
+			new FishStrategy(2),
+			new FishStrategy(3)
+		};
+
+		//The same strategies once as unit strategies, which the solver runs through worklists,
+		//and once hidden behind a plain strategy, which makes it rescan every unit on every pass
+		List<ASudokuStrategy> incremental = new ArrayList<>();
+		List<ASudokuStrategy> fullScan = new ArrayList<>();
+		incremental.add(new LinearEliminationStrategy());
+		fullScan.add(new LinearEliminationStrategy());
+		for (AUnitSudokuStrategy strat : unitStrats) {
+			incremental.add(strat);
+			fullScan.add(new FullScanStrategy(strat));
+		}
+		incremental.add(new XYWingStrategy());
+		fullScan.add(new XYWingStrategy());
+
+		SudokuSolver incrementalSolver = new SudokuSolver(incremental.toArray(new ASudokuStrategy[0]));
+		SudokuSolver fullScanSolver = new SudokuSolver(fullScan.toArray(new ASudokuStrategy[0]));
+
+		ISudokuSolver uniquenessChecker = new DancingLinksSolver();
+		Random randomizer = new Random(3);
+		for (int attempt = 0; attempt < 15; attempt++) {
+			//Dig holes as long as the solution stays unique, which gives puzzles of every difficulty
+			Sudoku puzzle = converter.fromString(HARD_SOLUTION);
+			for (int hole = 0; hole < 81; hole++) {
+				int index = randomizer.nextInt(81);
+				int value = puzzle.get(index);
+				puzzle.set(index, 0);
+				if (!uniquenessChecker.hasUniqueSolution(puzzle)) {
+					puzzle.set(index, value);
+				}
+			}
+
+			StepRecorder incrementalSteps = new StepRecorder();
+			StepRecorder fullScanSteps = new StepRecorder();
+			assertEquals(fullScanSolver.grade(puzzle, true, fullScanSteps), incrementalSolver.grade(puzzle, true, incrementalSteps));
+			assertEquals(describe(fullScanSteps.getSteps()), describe(incrementalSteps.getSteps()));
+		}
+	}
+
+	@Test
+	void TestImpliedEliminationsNeedLinearElimination() {
+		Sudoku puzzle = converter.fromString(HARD_SOLUTION);
+		for (int i = 0; i < 81; i += 4) {
+			puzzle.set(i, 0);
+		}
+
+		ASudokuStrategy[] strats = {
+			new LastInHouseStrategy(),
+			new LastInCellStrategy()
+		};
+		StepRecorder recorder = new StepRecorder();
+		new SudokuSolver(strats).grade(puzzle, true, recorder);
+
+		assertFalse(recorder.getSteps().isEmpty());
+		for (StrategyResult step : recorder.getSteps()) {
+			assertFalse(step.getSource() instanceof LinearEliminationStrategy);
+		}
+	}
+
+	private List<String> describe(List<StrategyResult> steps) {
+		List<String> descriptions = new ArrayList<>(steps.size());
+		for (StrategyResult step : steps) {
+			descriptions.add(step.getSource() + " " + step.getType() + " " + step.getIndex() + " " + step.getValue());
+		}
+		return descriptions;
+	}
+
+	/**Runs a unit strategy without exposing its units, so every pass is a full scan.*/
+	private static class FullScanStrategy extends ASudokuStrategy {
+		private final AUnitSudokuStrategy inner;
+
+		FullScanStrategy(AUnitSudokuStrategy _inner) {
+			inner = _inner;
+		}
+
+		@Override
+		public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
+			return inner.apply(sudokuEvalView);
+		}
+
+		@Override
+		public Difficulty getDifficulty() { return inner.getDifficulty(); }
+
+		@Override
+		public String toString() { return inner.toString(); }
+	}
+
+	private void checkUnique(ISudokuSolver solver) {
+		Sudoku puzzle = converter.fromString(HARD_PUZZLE);
+
+		assertEquals(1, solver.countSolutions(puzzle, 10));
+		assertTrue(solver.hasUniqueSolution(puzzle));
+
+		Sudoku solution = solver.getSolution(puzzle);
+		assertEquals(HARD_SOLUTION, converter.toString(solution));
+		assertTrue(solution.isSolved());
+
+		//The puzzle itself is left alone
+		assertEquals(HARD_PUZZLE, converter.toString(puzzle));
+	}
+
+	private void checkCounts(ISudokuSolver solver) {
+		//An empty board has far more solutions than the cap
+		assertEquals(5, solver.countSolutions(new Sudoku(), 5));
+		assertFalse(solver.hasUniqueSolution(new Sudoku()));
+		assertNull(solver.getSolution(new Sudoku()));
+
+		//Conflicting givens have no solutions
+		Sudoku broken = converter.fromString(HARD_PUZZLE);
+		broken.set(1, 8);
+		assertEquals(0, solver.countSolutions(broken, 2));
+		assertNull(solver.getSolution(broken));
+
+		//A solved board is its own single solution
+		Sudoku solved = converter.fromString(HARD_SOLUTION);
+		assertEquals(1, solver.countSolutions(solved, 2));
+	}
+}
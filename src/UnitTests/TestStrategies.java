@@ -0,0 +1,215 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import shared.evaluation.AnnotatedSudoku;
+import shared.evaluation.Difficulty;
+import shared.evaluation.StrategyResult;
+import shared.evaluation.strategies.FishStrategy;
+import shared.evaluation.strategies.IntersectionRemovalStrategy;
+import shared.evaluation.strategies.SubsetStrategy;
+import shared.evaluation.strategies.WWingStrategy;
+import shared.evaluation.strategies.XYWingStrategy;
+import shared.model.Sudoku;
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+
+class TestStrategies {
+	@Test
+	void TestNakedPair() {
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		keepOnly(subject, 0, 1, 2);
+		keepOnly(subject, 1, 1, 2);
+
+		List<StrategyResult> results = applyToHouse(new SubsetStrategy(), subject, SudokuHouses.FIRST_ROW);
+
+		//Both candidates leave the other 7 cells of the row, and the pair is only reported once
+		assertEquals(14, results.size());
+		for (StrategyResult result : results) {
+			assertTrue(result.getIndex() >= 2);
+			assertTrue((result.getValue() == 1) || (result.getValue() == 2));
+		}
+		assertNoDuplicatesAndPresent(subject, results);
+	}
+
+	@Test
+	void TestHiddenPair() {
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		for (int index = 2; index < 9; index++) {
+			subject.removeCandidate(index, 8);
+			subject.removeCandidate(index, 9);
+		}
+
+		List<StrategyResult> results = applyToHouse(new SubsetStrategy(), subject, SudokuHouses.FIRST_ROW);
+
+		//Everything but 8 and 9 leaves the first two cells
+		assertEquals(14, results.size());
+		for (StrategyResult result : results) {
+			assertTrue(result.getIndex() < 2);
+			assertTrue(result.getValue() < 8);
+		}
+		assertNoDuplicatesAndPresent(subject, results);
+	}
+
+	@Test
+	void TestNakedTripleNeedsLargerSize() {
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		keepOnly(subject, 0, 1, 2);
+		keepOnly(subject, 1, 2, 3);
+		keepOnly(subject, 2, 1, 3);
+
+		assertTrue(applyToHouse(new SubsetStrategy(2, 2, Difficulty.HARD), subject, SudokuHouses.FIRST_ROW).isEmpty());
+
+		List<StrategyResult> results = applyToHouse(new SubsetStrategy(3, 4, Difficulty.EXPERT), subject, SudokuHouses.FIRST_ROW);
+		assertEquals(18, results.size());
+		assertNoDuplicatesAndPresent(subject, results);
+	}
+
+	@Test
+	void TestPointing() {
+		//In the first square, 5 only fits in its top row
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		for (int index : new int[] {9, 10, 11, 18, 19, 20}) {
+			subject.removeCandidate(index, 5);
+		}
+
+		List<StrategyResult> results = new ArrayList<>();
+		new IntersectionRemovalStrategy().applyToUnit(0, subject.getView(), results);
+
+		assertEquals(6, results.size());
+		for (StrategyResult result : results) {
+			assertEquals(5, result.getValue());
+			assertTrue((result.getIndex() >= 3) && (result.getIndex() < 9));
+		}
+	}
+
+	@Test
+	void TestClaiming() {
+		//In the first column, 4 only fits in the first square
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		for (int row = 3; row < 9; row++) {
+			subject.removeCandidate(row * 9, 4);
+		}
+
+		List<StrategyResult> results = new ArrayList<>();
+		new IntersectionRemovalStrategy().applyToUnit(3, subject.getView(), results);
+
+		assertEquals(6, results.size());
+		for (StrategyResult result : results) {
+			assertEquals(4, result.getValue());
+			assertNotEquals(0, result.getIndex() % 9);
+			assertTrue(SudokuHouses.square(0).contains(result.getIndex()));
+		}
+	}
+
+	@Test
+	void TestIntersectionDependenciesAreReadOnly() {
+		IntersectionRemovalStrategy strategy = new IntersectionRemovalStrategy();
+
+		//Square 0 and its first row, then square 0 and its first column
+		assertEquals(15, strategy.getUnitDependencies(0).size());
+		assertTrue(strategy.getUnitDependencies(3).contains(72));
+		assertThrows(UnsupportedOperationException.class, () -> strategy.getUnitDependencies(0).add(80));
+	}
+
+	@Test
+	void TestXWing() {
+		//In rows 1 and 5, 7 only fits in columns 2 and 6
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		for (int row : new int[] {1, 5}) {
+			for (int column = 0; column < 9; column++) {
+				if ((column != 2) && (column != 6)) {
+					subject.removeCandidate(row * 9 + column, 7);
+				}
+			}
+		}
+
+		List<StrategyResult> results = new ArrayList<>();
+		new FishStrategy(2).applyToUnit(6, subject.getView(), results);
+		assertEquals(14, results.size());
+		for (StrategyResult result : results) {
+			int row = result.getIndex() / 9;
+			int column = result.getIndex() % 9;
+
+			assertEquals(7, result.getValue());
+			assertTrue((column == 2) || (column == 6));
+			assertTrue((row != 1) && (row != 5));
+		}
+
+		//No other candidate forms a fish, and a Swordfish needs a third row
+		results.clear();
+		new FishStrategy(2).applyToUnit(0, subject.getView(), results);
+		new FishStrategy(3).applyToUnit(6, subject.getView(), results);
+		assertTrue(results.isEmpty());
+	}
+
+	@Test
+	void TestXYWing() {
+		//Pivot 12 at index 0, pincers 13 in the same row and 23 in the same column
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		keepOnly(subject, 0, 1, 2);
+		keepOnly(subject, 5, 1, 3);
+		keepOnly(subject, 45, 2, 3);
+
+		List<StrategyResult> results = new XYWingStrategy().apply(subject.getView());
+
+		//Only index 50 sees both pincers
+		assertEquals(1, results.size());
+		assertEquals(50, results.get(0).getIndex());
+		assertEquals(3, results.get(0).getValue());
+	}
+
+	@Test
+	void TestWWing() {
+		//Bivalue 12 at indices 0 and 44, linked by 1 only fitting in indices 4 and 40 of the fifth column
+		AnnotatedSudoku subject = new AnnotatedSudoku(new Sudoku());
+		keepOnly(subject, 0, 1, 2);
+		keepOnly(subject, 44, 1, 2);
+		for (int row = 0; row < 9; row++) {
+			if ((row != 0) && (row != 4)) {
+				subject.removeCandidate(row * 9 + 4, 1);
+			}
+		}
+
+		List<StrategyResult> results = new WWingStrategy().apply(subject.getView());
+
+		//Indices 8 and 36 see both bivalue cells
+		assertEquals(2, results.size());
+		for (StrategyResult result : results) {
+			assertEquals(2, result.getValue());
+			assertTrue((result.getIndex() == 8) || (result.getIndex() == 36));
+		}
+	}
+
+	private void keepOnly(AnnotatedSudoku subject, int index, int first, int second) {
+		for (int candidate = 1; candidate <= 9; candidate++) {
+			if ((candidate != first) && (candidate != second)) {
+				subject.removeCandidate(index, candidate);
+			}
+		}
+	}
+
+	private List<StrategyResult> applyToHouse(SubsetStrategy strategy, AnnotatedSudoku subject, int house) {
+		List<StrategyResult> results = new ArrayList<>();
+		strategy.applyToUnit(house, subject.getView(), results);
+		return results;
+	}
+
+	private void assertNoDuplicatesAndPresent(AnnotatedSudoku subject, List<StrategyResult> results) {
+		Set<Integer> seen = new HashSet<>();
+		for (StrategyResult result : results) {
+			assertTrue(seen.add(result.getIndex() * 10 + result.getValue()));
+			assertNotEquals(0, subject.getCandidateMask(result.getIndex()) & SudokuCandidates.candidateBit(result.getValue()));
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package UnitTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import shared.evaluation.AnnotatedSudoku;
+import shared.evaluation.ISudokuMaskView;
+import shared.evaluation.StrategyResult;
+import shared.evaluation.StrategyWorklist;
+import shared.evaluation.strategies.LastInCellStrategy;
+import shared.io.SDMConverter;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+class TestStrategyWorklist {
+	private static final String PUZZLE = "012753649943682175675491283154237896369845721287169534521974368438526917796318450";
+
+	@Test
+	void TestCleanUnitsReuseResults() {
+		CountingStrategy strategy = new CountingStrategy();
+		StrategyWorklist worklist = new StrategyWorklist(strategy);
+		AnnotatedSudoku subject = new AnnotatedSudoku(new SDMConverter().fromString(PUZZLE));
+
+		//Everything is scanned the first time
+		List<StrategyResult> first = worklist.apply(subject.getView());
+		assertEquals(81, strategy.scans);
+		assertEquals(2, first.size());
+
+		//Nothing changed, so nothing is scanned and the cached results come back
+		strategy.scans = 0;
+		List<StrategyResult> second = worklist.apply(subject.getView());
+		assertEquals(0, strategy.scans);
+		assertEquals(first, second);
+
+		//Only the units depending on dirty cells are scanned again
+		SudokuSelection dirty = new SudokuSelection();
+		dirty.add(0);
+		dirty.add(40);
+		worklist.markDirty(dirty);
+		List<StrategyResult> third = worklist.apply(subject.getView());
+		assertEquals(2, strategy.scans);
+		assertEquals(first.size(), third.size());
+		for (int i = 0; i < first.size(); i++) {
+			assertEquals(first.get(i).getIndex(), third.get(i).getIndex());
+			assertEquals(first.get(i).getValue(), third.get(i).getValue());
+		}
+		//Unit 80 was clean, so its result is the cached one
+		assertSame(first.get(1), third.get(1));
+
+		//Marks are used up by the scan
+		strategy.scans = 0;
+		worklist.apply(subject.getView());
+		assertEquals(0, strategy.scans);
+	}
+
+	@Test
+	void TestDirtyUnitSeesChanges() {
+		CountingStrategy strategy = new CountingStrategy();
+		StrategyWorklist worklist = new StrategyWorklist(strategy);
+		AnnotatedSudoku subject = new AnnotatedSudoku(new SDMConverter().fromString(PUZZLE));
+		worklist.apply(subject.getView());
+
+		subject.setValue(0, 8);
+		worklist.markDirty(SudokuHouses.cell(0));
+		List<StrategyResult> results = worklist.apply(subject.getView());
+
+		assertEquals(1, results.size());
+		assertEquals(80, results.get(0).getIndex());
+	}
+
+	/**Last-in-cell strategy that counts its unit scans.*/
+	private static class CountingStrategy extends LastInCellStrategy {
+		private int scans = 0;
+
+		@Override
+		public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+			scans++;
+			super.applyToUnit(unit, sudokuEvalView, results);
+		}
+	}
+}
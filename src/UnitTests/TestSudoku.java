@@ -1,10 +1,21 @@
 package UnitTests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
+import shared.io.SDMConverter;
+import shared.model.CompactSudoku;
+import shared.model.DebugFormatter;
 import shared.model.Sudoku;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
 
 class TestSudoku {
 	
@@ -52,4 +63,204 @@ class TestSudoku {
 			assertEquals(CORRECT_SQRS[i], Sudoku.indexToSquare(i));
 		}
 	}
+
+	@Test
+	void TestValueTracking() {
+		Sudoku subject = new Sudoku();
+		assertEquals(0, subject.getFilledCount());
+		assertEquals(81, subject.valueCount(0));
+		assertTrue(subject.hasEmptyCells());
+
+		subject.set(0, 5);
+		subject.set(40, 5);
+		subject.set(80, 3);
+		assertEquals(3, subject.getFilledCount());
+		assertEquals(2, subject.valueCount(5));
+		assertEquals(1, subject.valueCount(5, SudokuHouses.row(0)));
+		assertEquals(new SudokuSelection(40), subject.valueFilter(5, SudokuHouses.square(4)));
+
+		//Overwriting moves the cell between values
+		subject.set(40, 3);
+		assertEquals(1, subject.valueCount(5));
+		assertEquals(2, subject.valueCount(3));
+		assertEquals(0, subject.valueCount(5, SudokuHouses.square(4)));
+
+		subject.set(0, 0);
+		assertEquals(2, subject.getFilledCount());
+		assertEquals(79, subject.valueFilter(0, SudokuHouses.all()).size());
+
+		Sudoku clone = subject.clone();
+		clone.set(1, 7);
+		assertEquals(0, subject.valueCount(7));
+		assertEquals(1, clone.valueCount(7));
+
+		subject.fill(SudokuHouses.all(), 1);
+		assertFalse(subject.hasEmptyCells());
+		assertEquals(81, subject.valueCount(1));
+	}
+
+	@Test
+	void TestIssueTracking() {
+		Sudoku subject = new Sudoku();
+		subject.set(0, 4);
+		subject.set(8, 4);
+		assertEquals(new SudokuSelection(Arrays.asList(0, 8)), subject.getIssues());
+
+		//Clearing one half of a conflict resolves both cells
+		subject.set(8, 0);
+		assertTrue(subject.isLegalBoardState());
+
+		//Compare against a full recount after a long series of random writes
+		Random randomizer = new Random(7);
+		for (int step = 0; step < 2000; step++) {
+			subject.set(randomizer.nextInt(81), randomizer.nextInt(10));
+
+			SudokuSelection expected = new SudokuSelection();
+			for (int i = 0; i < 81; i++) {
+				for (int peer : SudokuHouses.peerIndices(i)) {
+					if ((subject.get(i) != 0) && (subject.get(i) == subject.get(peer))) {
+						expected.add(i);
+					}
+				}
+			}
+
+			assertEquals(expected, subject.getIssues());
+		}
+
+		SudokuSelection tracked = subject.getIssues();
+		subject.regenerateIssues();
+		assertEquals(tracked, subject.getIssues());
+	}
+
+	@Test
+	void TestCompactRoundTrip() {
+		Random randomizer = new Random(3);
+		Sudoku subject = new Sudoku();
+		for (int i = 0; i < 81; i++) {
+			subject.set(i, randomizer.nextInt(10));
+		}
+
+		CompactSudoku compact = subject.getCompact();
+		for (int i = 0; i < 81; i++) {
+			assertEquals(subject.get(i), compact.get(i));
+		}
+
+		Sudoku restored = compact.toSudoku();
+		assertEquals(subject, restored);
+		assertEquals(subject.getIssues(), restored.getIssues());
+		assertEquals(subject.getFilledCount(), restored.getFilledCount());
+
+		assertEquals(compact, restored.getCompact());
+		assertEquals(compact.hashCode(), restored.getCompact().hashCode());
+		assertEquals(0, compact.compareTo(restored.getCompact()));
+	}
+
+	@Test
+	void TestCompactOrdering() {
+		Sudoku first = new Sudoku();
+		Sudoku second = new Sudoku();
+		first.set(80, 9);
+		second.set(0, 1);
+
+		CompactSudoku firstCompact = first.getCompact();
+		CompactSudoku secondCompact = second.getCompact();
+
+		//The earliest differing cell decides the order
+		assertNotEquals(firstCompact, secondCompact);
+		assertTrue(firstCompact.compareTo(secondCompact) < 0);
+		assertTrue(secondCompact.compareTo(firstCompact) > 0);
+
+		first.set(0, 2);
+		assertTrue(first.getCompact().compareTo(secondCompact) > 0);
+	}
+
+	@Test
+	void TestZobristHash() {
+		Sudoku first = new Sudoku();
+		Sudoku second = new Sudoku();
+		assertEquals(0L, first.getZobristHash());
+
+		//Same contents reached in a different order give the same hash
+		first.set(3, 7);
+		first.set(50, 2);
+		second.set(50, 2);
+		second.set(3, 1);
+		second.set(3, 7);
+		assertEquals(first.getZobristHash(), second.getZobristHash());
+		assertEquals(first.hashCode(), second.hashCode());
+		assertEquals(first, second);
+
+		long before = first.getZobristHash();
+		first.set(10, 4);
+		assertNotEquals(before, first.getZobristHash());
+		assertNotEquals(first, second);
+
+		first.set(10, 0);
+		assertEquals(before, first.getZobristHash());
+
+		assertEquals(first.getZobristHash(), first.clone().getZobristHash());
+		assertEquals(first.getZobristHash(), first.getCompact().toSudoku().getZobristHash());
+	}
+
+	@Test
+	void TestCloneIndependence() {
+		Sudoku original = new Sudoku();
+		original.set(0, 1);
+		original.set(1, 1);
+
+		Sudoku first = original.clone();
+		Sudoku second = original.clone();
+		assertEquals(original, first);
+
+		first.set(1, 2);
+		assertEquals(1, original.get(1));
+		assertEquals(1, second.get(1));
+		assertEquals(2, first.get(1));
+		assertFalse(original.isLegalBoardState());
+		assertTrue(first.isLegalBoardState());
+
+		original.set(2, 3);
+		assertEquals(0, second.get(2));
+		assertEquals(0, first.get(2));
+		assertEquals(2, second.getFilledCount());
+
+		second.set(0, 0);
+		assertEquals(1, original.get(0));
+		assertEquals(1, first.get(0));
+		assertTrue(second.isLegalBoardState());
+		assertFalse(original.isLegalBoardState());
+
+		//Clones of clones stay independent as well
+		Sudoku nested = first.clone().clone();
+		nested.set(40, 9);
+		assertEquals(0, first.get(40));
+		assertEquals(1, nested.valueCount(9));
+	}
+
+	@Test
+	void TestRendering() throws Exception {
+		Sudoku subject = new Sudoku();
+		subject.set(0, 5);
+		subject.set(80, 9);
+
+		String pretty = subject.getPrettyString(new DebugFormatter());
+		String[] lines = pretty.split("\n");
+		assertEquals(13, lines.length);
+		assertEquals("----------------------", lines[0]);
+		assertEquals("| 5 0 0| 0 0 0| 0 0 0|", lines[1]);
+		assertEquals("| 0 0 0| 0 0 0| 0 0 9|", lines[11]);
+
+		StringBuilder appended = new StringBuilder();
+		subject.appendPrettyString(appended, new DebugFormatter());
+		assertEquals(pretty, appended.toString());
+
+		SDMConverter converter = new SDMConverter();
+		String line = converter.toString(subject);
+		assertEquals(81, line.length());
+		assertEquals(subject, converter.fromString(line));
+
+		StringBuilder batch = new StringBuilder();
+		converter.appendAll(batch, Arrays.asList(subject, new Sudoku()));
+		assertEquals(line + "\n" + "0".repeat(81) + "\n", batch.toString());
+	}
 }
@@ -7,11 +7,18 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.Difficulty;
+import shared.evaluation.GradeCache;
 import shared.evaluation.SudokuSolver;
+import shared.evaluation.strategies.FishStrategy;
+import shared.evaluation.strategies.IntersectionRemovalStrategy;
 import shared.evaluation.strategies.LastInCellStrategy;
 import shared.evaluation.strategies.LastInHouseStrategy;
 import shared.evaluation.strategies.LinearEliminationStrategy;
-import shared.evaluation.strategies.NakedPairsStrategy;
+import shared.evaluation.strategies.SubsetStrategy;
+import shared.evaluation.strategies.WWingStrategy;
+import shared.evaluation.strategies.XYWingStrategy;
+import shared.evaluation.strategies.XYZWingStrategy;
 import shared.generation.IFilledSudokuGenerator;
 import shared.generation.ASudokuHoleMaker;
 import shared.generation.PerSquareEvenHoleMaker;
@@ -39,12 +46,21 @@ public class SudokuAppLauncher extends Application {
 
 		ASudokuStrategy[] strats = {
 			new LinearEliminationStrategy(),
-			new NakedPairsStrategy(),
+			new IntersectionRemovalStrategy(),
+			new SubsetStrategy(2, 2, Difficulty.HARD),
+			new SubsetStrategy(3, 4, Difficulty.EXPERT),
+			new FishStrategy(2),
+			new FishStrategy(3),
+			new FishStrategy(4),
+			new XYWingStrategy(),
+			new XYZWingStrategy(),
+			new WWingStrategy(),
 			new LastInHouseStrategy(),
 			new LastInCellStrategy()
 		};
 
 		SudokuSolver grader = new SudokuSolver(strats);
+		grader.setGradeCache(new GradeCache(1024));
 		
 		SudokuGenerator generator = new SudokuGenerator(fillGenerator, holeMaker, grader);
 
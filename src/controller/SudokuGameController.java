@@ -4,6 +4,7 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import shared.model.ISudokuDisplayObserver;
 import shared.model.Sudoku;
+import shared.model.SudokuHouses;
 import shared.model.SudokuSelection;
 import view.SudokuDisplay;
 
@@ -55,7 +56,7 @@ public class SudokuGameController implements ISudokuDisplayObserver {
 	}
 	
 	private void updateSameHighlight() {
-		display.clearHighlight(SudokuSelection.all(), "samedigit");
+		display.clearHighlight(SudokuHouses.all(), "samedigit");
 		int currentSelectionIndex = display.getSelectedIndex();
 		if (currentSelectionIndex == -1) {
 			return;
@@ -63,18 +64,18 @@ public class SudokuGameController implements ISudokuDisplayObserver {
 		
 		int valueAtSelection = currentSudoku.get(currentSelectionIndex);
 		if (valueAtSelection != 0) {
-			display.highlight(currentSudoku.valueFilter(valueAtSelection, SudokuSelection.all()), "samedigit");
+			display.highlight(currentSudoku.valueFilter(valueAtSelection, SudokuHouses.all()), "samedigit");
 		}
 	}
 
 	private void updateErrorHighlight() {
-		display.clearHighlight(SudokuSelection.all(), "issue");
+		display.clearHighlight(SudokuHouses.all(), "issue");
 		display.highlight(currentSudoku.getIssues(), "issue");
 	}
 	
 	@Override
 	public void onDisplayedSudokuChanged(Sudoku newSudoku) {
-		SudokuSelection emptyCells = newSudoku.valueFilter(0, SudokuSelection.all());
+		SudokuSelection emptyCells = newSudoku.valueFilter(0, SudokuHouses.all());
 		SudokuSelection nonEmpty = emptyCells.getInverse();
 		display.setCellsEditable(emptyCells, true);
 		display.setCellsEditable(nonEmpty, false);
@@ -0,0 +1,43 @@
+package shared.evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import shared.model.SudokuSelection;
+
+/**A strategy that looks at the sudoku in independent units, such as single houses or cells.
+ * The results of a unit may only depend on the values and candidates of the unit's dependency cells.
+ * This lets the solver skip every unit whose dependencies have not changed since the last scan, and reuse the results from then.
+ */
+public abstract class AUnitSudokuStrategy extends ASudokuStrategy {
+	/**Get the amount of units this strategy looks at.*/
+	public abstract int getUnitCount();
+
+	/**Get the cells whose values and candidates the results of a unit depend on.
+	 * Called often by the solver, so this should return a shared selection, such as one from SudokuHouses.
+	 *
+	 * @param unit	Unit number, from 0 to getUnitCount() (exclusive).
+	 * @return	Selection that must not be modified.
+	 */
+	public abstract SudokuSelection getUnitDependencies(int unit);
+
+	/**Look for results inside a single unit.
+	 *
+	 * @param unit	Unit number, from 0 to getUnitCount() (exclusive).
+	 * @param sudokuEvalView	The sudoku to look at.
+	 * @param results	Target list that found results are added to.
+	 */
+	public abstract void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results);
+
+	/**Look at every unit in order.*/
+	@Override
+	public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
+		List<StrategyResult> results = new ArrayList<>();
+
+		for (int unit = 0; unit < getUnitCount(); unit++) {
+			applyToUnit(unit, sudokuEvalView, results);
+		}
+
+		return results;
+	}
+}
@@ -3,25 +3,62 @@ package shared.evaluation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 import shared.model.Sudoku;
 import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
 import shared.model.SudokuSelection;
 import shared.utility.RuntimeAssert;
 
+/**A sudoku being solved, together with the candidates left at every index.
+ * Candidates are kept consistent with the values: a candidate is never left at an index where a peer already holds that value.
+ * This covers the givens on construction, and every value placed with setValue afterwards.
+ *
+ * The positions of every candidate within each house, the digits placed in each house, and the cells with two candidates
+ * are kept up to date as well, so strategies can read them without scanning.
+ */
 public class AnnotatedSudoku {
 	private Sudoku sudoku;
 	private SudokuCandidates candidates;
-	
-	//TODO: get the solvelog out of here
-	private List<StrategyResult> solveLog = new ArrayList<>();
+	/**Per house and digit, the positions in the house that have the digit as a candidate. Indexed by house * 9 + (digit - 1).*/
+	private int[] positionMasks = new int[SudokuHouses.HOUSE_COUNT * 9];
+	/**Per house, the digits placed in it.*/
+	private int[] solvedMasks = new int[SudokuHouses.HOUSE_COUNT];
+	/**Empty cells with exactly two candidates.*/
+	private SudokuSelection bivalueCells = new SudokuSelection();
+	/**Strategy that implied eliminations are reported as, or null if they are not reported.*/
+	private ASudokuStrategy impliedEliminationSource;
+	/**Receives every applied step, or null if nothing listens.*/
+	private IStepListener stepListener;
+	/**Implied eliminations made by the current applyResults call that have yet to be reported, as a candidate mask per index.*/
+	private int[] pendingEliminations = new int[81];
+	private SudokuSelection pendingCells = new SudokuSelection();
+
+	/**Cells whose value or candidates were changed by applyResults since the last clearChangedCells, including implied eliminations.*/
+	private SudokuSelection changedCells = new SudokuSelection();
 
 	public AnnotatedSudoku(Sudoku _sudoku) {
+		this(_sudoku, null, null);
+	}
+
+	/**Annotate a sudoku, and optionally report the candidates removed because a peer holds their value as steps.
+	 * Those removals are the same ones LinearEliminationStrategy finds, so reporting them as such keeps the steps complete for grading.
+	 *
+	 * @param _sudoku	Sudoku to annotate. It is not modified.
+	 * @param _impliedEliminationSource	If not null, every implied elimination is reported as a result from this strategy.
+	 * @param _stepListener	Receives every step applied with applyResults, and the implied eliminations. May be null.
+	 */
+	public AnnotatedSudoku(Sudoku _sudoku, ASudokuStrategy _impliedEliminationSource, IStepListener _stepListener) {
 		RuntimeAssert.notNull(_sudoku);
 
 		sudoku = _sudoku.clone();
+		stepListener = _stepListener;
+		impliedEliminationSource = (_stepListener != null) ? _impliedEliminationSource : null;
 
-		candidates = new SudokuCandidates();
+		candidates = new SudokuCandidates(sudoku);
+		eliminateGivens();
+		initHouseMasks();
 	}
 
 	public AnnotatedSudokuView getView() { return new AnnotatedSudokuView(this); }
@@ -40,24 +77,80 @@ public class AnnotatedSudoku {
 			return new ArrayList<>(0);
 		}
 
-		List<Integer> results = new ArrayList<>(9);
+		int candidateMask = candidates.getCandidateMask(index);
+		List<Integer> results = new ArrayList<>(Integer.bitCount(candidateMask));
 
-		boolean[] candidateMask = candidates.getMask(index);
-		for (int i = 0; i < 9; i++) {
-			if (candidateMask[i]) {
-				results.add(i + 1);
-			}
+		while (candidateMask != 0) {
+			results.add(Integer.numberOfTrailingZeros(candidateMask) + 1);
+			candidateMask &= candidateMask - 1;
 		}
 
 		return results;
 	}
 
+	/**Get the candidates of an index as a 9-bit mask, where bit (candidate - 1) is set if the candidate is present.
+	 * Filled indices have no candidates.
+	 *
+	 * @param index	Index to get the candidates for.
+	 * @return	The candidate mask.
+	 */
+	public int getCandidateMask(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		if (sudoku.get(index) > 0) {
+			return 0;
+		}
+
+		return candidates.getCandidateMask(index);
+	}
+
+	/**Get a copy of the current candidates, where filled indices have none.*/
+	public SudokuCandidates getCandidatesSnapshot() {
+		SudokuCandidates snapshot = new SudokuCandidates(candidates);
+		for (int i = 0; i < 81; i++) {
+			if (sudoku.get(i) > 0) {
+				snapshot.setCandidateMask(i, 0);
+			}
+		}
+
+		return snapshot;
+	}
+
+	/**Get the positions inside a house that have a digit as a candidate, where bit p stands for SudokuHouses.cellsOf(house)[p].
+	 *
+	 * @param house	House number.
+	 * @param digit	Digit from 1 to 9.
+	 * @return	The position mask.
+	 */
+	public int getPositionMask(int house, int digit) {
+		RuntimeAssert.inRange(house, 0, SudokuHouses.HOUSE_COUNT);
+		RuntimeAssert.inRange(digit, 1, 10);
+
+		return positionMasks[house * 9 + digit - 1];
+	}
+
+	/**Get the digits placed in a house, as a 9-bit mask.*/
+	public int getSolvedMask(int house) {
+		RuntimeAssert.inRange(house, 0, SudokuHouses.HOUSE_COUNT);
+
+		return solvedMasks[house];
+	}
+
+	/**Get the empty cells that have exactly two candidates left. The returned selection is live, and must not be modified.*/
+	public SudokuSelection getBivalueCells() {
+		return bivalueCells;
+	}
+
+	public int getCandidateCount(int index) {
+		return Integer.bitCount(getCandidateMask(index));
+	}
+
 	public int[] getAppearanceCount(SudokuSelection area) {
 		int[] appearanceCounts = new int[9];
 		Arrays.fill(appearanceCounts, 0);
 
 		for (int i = 0; i < 9; i++) {
-			appearanceCounts[i] = sudoku.valueFilter(i + 1, area).size();
+			appearanceCounts[i] = sudoku.valueCount(i + 1, area);
 		}
 
 		return appearanceCounts;
@@ -79,12 +172,22 @@ public class AnnotatedSudoku {
 		if (currentVal == value) {
 			madeChange = false;
 		}
+
 		sudoku.set(index, value);
 
+		if (madeChange) {
+			updatePositions(index, candidates.getCandidateMask(index), 0);
+			for (int house : SudokuHouses.housesOf(index)) {
+				solvedMasks[house] |= SudokuCandidates.candidateBit(value);
+			}
+			eliminateFromPeers(index, value);
+		}
+
 		return madeChange;
 	}
 
 	/**Unset a value at a location. The value currently at the location needs to be provided for a sanity check.
+	 * Candidates removed from peers when the value was set are not restored.
 	 * 
 	 * @param index		Index to unset.
 	 * @param fromValue	Value currently at the location that is to be unset. Must match with what is at the location or an AssertionError is raised.
@@ -96,22 +199,47 @@ public class AnnotatedSudoku {
 		RuntimeAssert.areEqual(fromValue, sudoku.get(index));
 
 		sudoku.set(index, 0);
+
+		//Another cell in the house may hold the same value, so rebuild rather than clear the bit
+		for (int house : SudokuHouses.housesOf(index)) {
+			int solvedMask = 0;
+			for (int cell : SudokuHouses.cellsOf(house)) {
+				if (sudoku.get(cell) != 0) {
+					solvedMask |= SudokuCandidates.candidateBit(sudoku.get(cell));
+				}
+			}
+			solvedMasks[house] = solvedMask;
+		}
+		updatePositions(index, 0, candidates.getCandidateMask(index));
 	}
 
+	/**Remove a candidate from an empty index. Removing a candidate that is not present does nothing.
+	 *
+	 * @param index	Index to remove the candidate from.
+	 * @param candidate	Candidate to remove. Must not be the last candidate left at the index, or an AssertionError is raised.
+	 * @return	True if the candidate was present.
+	 */
 	public boolean removeCandidate(int index, int candidate) {
 		RuntimeAssert.inRange(index, 0, 81);
 		RuntimeAssert.inRange(candidate, 1, 10);
 		RuntimeAssert.areEqual(sudoku.get(index), 0);
-		RuntimeAssert.areDifferent(getCandidates(index).size(), 1);
+		RuntimeAssert.areDifferent(candidates.getCandidateMask(index), SudokuCandidates.candidateBit(candidate));
+
+		boolean removed = candidates.removeCandidate(index, candidate);
+		if (removed) {
+			updatePositions(index, SudokuCandidates.candidateBit(candidate), 0);
+		}
 
-		return candidates.removeCandidate(index, candidate);
+		return removed;
 	}
 
 	public void addCandidate(int index, int candidate) {
 		RuntimeAssert.inRange(index, 0, 81);
 		RuntimeAssert.inRange(candidate, 1, 10);
 
-		candidates.addCandidate(index, candidate);
+		if (candidates.addCandidate(index, candidate) && (sudoku.get(index) == 0)) {
+			updatePositions(index, 0, SudokuCandidates.candidateBit(candidate));
+		}
 	}
 
 	public int applyResults(List<StrategyResult> results) {
@@ -119,32 +247,175 @@ public class AnnotatedSudoku {
 		for (StrategyResult result : results) {
 			try {
 				if (result.apply(this)) {
-					solveLog.add(result);
+					reportStep(result);
+					changedCells.add(result.getIndex());
 					changes++;
 				}
 			}
 			catch (AssertionError e) {
-				solveLog.add(result);
+				reportPendingEliminations();
+				reportStep(result);
 				throw new AssertionError("Assertion failed when applying result \"" + result.toString() + "\" from \"" + result.getSource().toString() + "\"", e);
 			}
 		}
 
+		reportPendingEliminations();
+
 		return changes;
 	}
 
-	public List<StrategyResult> getLog() {
-		return solveLog;
+	/**Get the cells changed by applyResults since the last call to clearChangedCells. The returned selection is live, and must not be modified.*/
+	public SudokuSelection getChangedCells() {
+		return changedCells;
 	}
-	
+
+	public void clearChangedCells() {
+		changedCells.clear();
+	}
+
 	public int getFilledCount() {
-		return 81 - sudoku.valueFilter(0, SudokuSelection.all()).size();
+		return sudoku.getFilledCount();
 	}
 
 	public boolean isSolved() {
 		return sudoku.isSolved();
 	}
 
-	public void clearLog() {
-		solveLog.clear();
+	/**Remove the values of all givens from the candidates of their peers.
+	 * Empty indices are handled in order and their candidates in ascending order, which matches a first pass of LinearEliminationStrategy.
+	 */
+	private void eliminateGivens() {
+		int[] houseMasks = new int[SudokuHouses.HOUSE_COUNT];
+		for (int i = 0; i < 81; i++) {
+			int value = sudoku.get(i);
+			if (value != 0) {
+				for (int house : SudokuHouses.housesOf(i)) {
+					houseMasks[house] |= SudokuCandidates.candidateBit(value);
+				}
+			}
+		}
+
+		for (int i = 0; i < 81; i++) {
+			if (sudoku.get(i) != 0) {
+				continue;
+			}
+
+			int[] houses = SudokuHouses.housesOf(i);
+			int seenMask = houseMasks[houses[0]] | houseMasks[houses[1]] | houseMasks[houses[2]];
+			int candidateMask = candidates.getCandidateMask(i);
+			candidates.setCandidateMask(i, candidateMask & ~seenMask);
+
+			if (impliedEliminationSource != null) {
+				int removedMask = candidateMask & seenMask;
+				while (removedMask != 0) {
+					int candidate = Integer.numberOfTrailingZeros(removedMask) + 1;
+					removedMask &= removedMask - 1;
+
+					reportImpliedElimination(i, candidate);
+				}
+			}
+		}
+	}
+
+	/**Fill the position and solved masks of every house from the values and candidates.*/
+	private void initHouseMasks() {
+		for (int i = 0; i < 81; i++) {
+			int value = sudoku.get(i);
+			if (value != 0) {
+				for (int house : SudokuHouses.housesOf(i)) {
+					solvedMasks[house] |= SudokuCandidates.candidateBit(value);
+				}
+			}
+			else {
+				updatePositions(i, 0, candidates.getCandidateMask(i));
+			}
+		}
+	}
+
+	/**Update the position masks of an index's houses and the bivalue cells after its visible candidates changed.
+	 *
+	 * @param index	Index whose candidates changed.
+	 * @param removedMask	Candidates no longer present at the index.
+	 * @param addedMask	Candidates newly present at the index.
+	 */
+	private void updatePositions(int index, int removedMask, int addedMask) {
+		int[] houses = SudokuHouses.housesOf(index);
+		int[] positions = SudokuHouses.positionsOf(index);
+		for (int h = 0; h < 3; h++) {
+			int base = houses[h] * 9;
+			int positionBit = 1 << positions[h];
+
+			int mask = removedMask;
+			while (mask != 0) {
+				positionMasks[base + Integer.numberOfTrailingZeros(mask)] &= ~positionBit;
+				mask &= mask - 1;
+			}
+
+			mask = addedMask;
+			while (mask != 0) {
+				positionMasks[base + Integer.numberOfTrailingZeros(mask)] |= positionBit;
+				mask &= mask - 1;
+			}
+		}
+
+		int visibleMask = (sudoku.get(index) == 0) ? candidates.getCandidateMask(index) : 0;
+		if (Integer.bitCount(visibleMask) == 2) {
+			bivalueCells.add(index);
+		}
+		else {
+			bivalueCells.remove(index);
+		}
+	}
+
+	/**Remove a newly placed value from the candidates of all empty peers.*/
+	private void eliminateFromPeers(int index, int value) {
+		for (int peer : SudokuHouses.peerIndices(index)) {
+			if ((sudoku.get(peer) == 0) && candidates.removeCandidate(peer, value)) {
+				updatePositions(peer, SudokuCandidates.candidateBit(value), 0);
+				changedCells.add(peer);
+
+				if (impliedEliminationSource != null) {
+					pendingEliminations[peer] |= SudokuCandidates.candidateBit(value);
+					pendingCells.add(peer);
+				}
+			}
+		}
+	}
+
+	/**Report the implied eliminations of the current batch of results, for the indices that are still empty.
+	 * Indices are handled in order and their candidates in ascending order,
+	 * which matches a pass of LinearEliminationStrategy right after the batch.
+	 */
+	private void reportPendingEliminations() {
+		PrimitiveIterator.OfInt indices = pendingCells.iterator();
+		while (indices.hasNext()) {
+			int index = indices.nextInt();
+			int removedMask = pendingEliminations[index];
+			pendingEliminations[index] = 0;
+
+			if (sudoku.get(index) != 0) {
+				continue;
+			}
+
+			while (removedMask != 0) {
+				int candidate = Integer.numberOfTrailingZeros(removedMask) + 1;
+				removedMask &= removedMask - 1;
+
+				reportImpliedElimination(index, candidate);
+			}
+		}
+
+		pendingCells.clear();
+	}
+
+	private void reportImpliedElimination(int index, int candidate) {
+		ResultReason reasoning = new ResultReason(sudoku.valueFilter(candidate, SudokuHouses.peers(index)));
+		reportStep(impliedEliminationSource.makeRemovalResult(index, candidate, reasoning));
+	}
+
+	private void reportStep(StrategyResult step) {
+		if (stepListener != null) {
+			stepListener.onStep(step);
+		}
 	}
 }
@@ -4,13 +4,17 @@ import java.util.List;
 
 import shared.model.SudokuSelection;
 
-public class AnnotatedSudokuView {
+/**View handed to strategies. The bitmask methods of ISudokuMaskView are the preferred way to read the sudoku,
+ * the list based methods remain for strategies that have not been ported yet.
+ */
+public class AnnotatedSudokuView implements ISudokuMaskView {
 	private AnnotatedSudoku source;
 
 	public AnnotatedSudokuView(AnnotatedSudoku _source) {
 		source = _source;
 	}
 
+	@Override
 	public int getValue(int index) {
 		return source.getValue(index);
 	}
@@ -19,10 +23,36 @@ public class AnnotatedSudokuView {
 		return source.getCandidates(index);
 	}
 
+	/**Get the candidates of an index as a 9-bit mask, where bit (candidate - 1) is set if the candidate is present.*/
+	@Override
+	public int getCandidateMask(int index) {
+		return source.getCandidateMask(index);
+	}
+
+	@Override
+	public int getPositionMask(int house, int digit) {
+		return source.getPositionMask(house, digit);
+	}
+
+	@Override
+	public int getSolvedMask(int house) {
+		return source.getSolvedMask(house);
+	}
+
+	public int getCandidateCount(int index) {
+		return source.getCandidateCount(index);
+	}
+
 	public int[] getAppearanceCounts(SudokuSelection selection) {
 		return source.getAppearanceCount(selection);
 	}
 
+	@Override
+	public SudokuSelection getBivalueCells() {
+		return source.getBivalueCells();
+	}
+
+	@Override
 	public SudokuSelection indicesOf(int value, SudokuSelection selection) {
 		return source.getSudoku().valueFilter(value, selection);
 	}
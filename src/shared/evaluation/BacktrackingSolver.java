@@ -0,0 +1,153 @@
+package shared.evaluation;
+
+import shared.model.Sudoku;
+import shared.model.SudokuCandidates;
+import shared.utility.RuntimeAssert;
+
+/**Brute-force solver that searches all possible fillings with row, column and square digit masks.
+ * Unlike SudokuSolver, this does not care how hard a sudoku is, and always finds out how many solutions there are (up to a cap).
+ * The cell picked at every step is the one with the fewest options left.
+ *
+ * Instances reuse their working arrays between solves, so one instance should not be used from several threads at once.
+ */
+public class BacktrackingSolver implements ISudokuSolver {
+	private static final int[] SQUARE_OF = new int[81];
+
+	static {
+		for (int i = 0; i < 81; i++) {
+			SQUARE_OF[i] = Sudoku.indexToSquare(i);
+		}
+	}
+
+	private final int[] cells = new int[81];
+	private final int[] rowMasks = new int[9];
+	private final int[] columnMasks = new int[9];
+	private final int[] squareMasks = new int[9];
+	private final int[] solution = new int[81];
+
+	private int solutionCount;
+	private int solutionCap;
+
+	@Override
+	public int countSolutions(Sudoku sudoku, int cap) {
+		RuntimeAssert.notNull(sudoku);
+		RuntimeAssert.inRange(cap, 1, Integer.MAX_VALUE);
+
+		solutionCount = 0;
+		solutionCap = cap;
+
+		if (load(sudoku)) {
+			search();
+		}
+
+		return solutionCount;
+	}
+
+	@Override
+	public Sudoku getSolution(Sudoku sudoku) {
+		if (countSolutions(sudoku, 2) != 1) {
+			return null;
+		}
+
+		Sudoku result = sudoku.clone();
+		for (int i = 0; i < 81; i++) {
+			result.set(i, solution[i]);
+		}
+
+		return result;
+	}
+
+	/**Copy a sudoku into the working arrays.
+	 *
+	 * @return	false if the given values already break the rules, in which case there are no solutions.
+	 */
+	private boolean load(Sudoku sudoku) {
+		for (int i = 0; i < 9; i++) {
+			rowMasks[i] = 0;
+			columnMasks[i] = 0;
+			squareMasks[i] = 0;
+		}
+
+		for (int i = 0; i < 81; i++) {
+			int value = sudoku.get(i);
+			cells[i] = value;
+
+			if (value == 0) {
+				continue;
+			}
+
+			int bit = SudokuCandidates.candidateBit(value);
+			int row = i / 9;
+			int col = i % 9;
+			int sqr = SQUARE_OF[i];
+
+			if (((rowMasks[row] | columnMasks[col] | squareMasks[sqr]) & bit) != 0) {
+				return false;
+			}
+
+			rowMasks[row] |= bit;
+			columnMasks[col] |= bit;
+			squareMasks[sqr] |= bit;
+		}
+
+		return true;
+	}
+
+	private void search() {
+		//Pick the empty cell with the fewest options
+		int bestIndex = -1;
+		int bestOptions = 0;
+		int bestCount = 10;
+
+		for (int i = 0; i < 81; i++) {
+			if (cells[i] != 0) {
+				continue;
+			}
+
+			int options = ~(rowMasks[i / 9] | columnMasks[i % 9] | squareMasks[SQUARE_OF[i]]) & SudokuCandidates.ALL_CANDIDATES;
+			int count = Integer.bitCount(options);
+
+			if (count < bestCount) {
+				bestIndex = i;
+				bestOptions = options;
+				bestCount = count;
+
+				//Can't do better than a dead end or a forced value
+				if (count <= 1) {
+					break;
+				}
+			}
+		}
+
+		//No empty cells left, this is a solution
+		if (bestIndex == -1) {
+			if (solutionCount == 0) {
+				System.arraycopy(cells, 0, solution, 0, 81);
+			}
+			solutionCount++;
+			return;
+		}
+
+		int row = bestIndex / 9;
+		int col = bestIndex % 9;
+		int sqr = SQUARE_OF[bestIndex];
+
+		while ((bestOptions != 0) && (solutionCount < solutionCap)) {
+			int bit = bestOptions & -bestOptions;
+			bestOptions &= bestOptions - 1;
+
+			cells[bestIndex] = Integer.numberOfTrailingZeros(bit) + 1;
+			rowMasks[row] |= bit;
+			columnMasks[col] |= bit;
+			squareMasks[sqr] |= bit;
+
+			search();
+
+			rowMasks[row] &= ~bit;
+			columnMasks[col] &= ~bit;
+			squareMasks[sqr] &= ~bit;
+		}
+
+		cells[bestIndex] = 0;
+	}
+}
@@ -0,0 +1,42 @@
+package shared.evaluation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**Grades of a batch graded by SudokuSolver.gradeAll, in the same order as the input, along with how fast they were graded.*/
+public final class BatchGrades {
+	private final List<Difficulty> grades;
+	private final int failureCount;
+	private final long elapsedNanos;
+	private final int parallelism;
+
+	BatchGrades(List<Difficulty> _grades, int _failureCount, long _elapsedNanos, int _parallelism) {
+		grades = Collections.unmodifiableList(_grades);
+		failureCount = _failureCount;
+		elapsedNanos = _elapsedNanos;
+		parallelism = _parallelism;
+	}
+
+	/**Get the grade of every sudoku, in input order. Sudokus the solver failed on are Difficulty.UNGRADED.*/
+	public List<Difficulty> getGrades() { return grades; }
+	public int size() { return grades.size(); }
+	/**Get the amount of sudokus the solver failed on, each of which was published to the solver's event sink.*/
+	public int getFailureCount() { return failureCount; }
+	public long getElapsedNanos() { return elapsedNanos; }
+	/**Get the amount of worker threads the batch was graded with.*/
+	public int getParallelism() { return parallelism; }
+
+	public double getSudokusPerSecond() {
+		if (elapsedNanos == 0) {
+			return 0.0;
+		}
+
+		return grades.size() * 1e9 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Graded %d sudokus (%d failed) in %.1f ms on %d threads, %.1f sudokus/s",
+			grades.size(), failureCount, elapsedNanos / 1e6, parallelism, getSudokusPerSecond());
+	}
+}
@@ -0,0 +1,45 @@
+package shared.evaluation;
+
+/**Result of grading with GradeLimits: either the final grade, or why grading stopped early.*/
+public final class BoundedGrade {
+	private final Outcome outcome;
+	private final Difficulty difficulty;
+	private final int stepCount;
+
+	BoundedGrade(Outcome _outcome, Difficulty _difficulty, int _stepCount) {
+		outcome = _outcome;
+		difficulty = _difficulty;
+		stepCount = _stepCount;
+	}
+
+	public Outcome getOutcome() { return outcome; }
+
+	/**Get the final grade if the outcome is GRADED, which may be Difficulty.UNGRADED.
+	 * Otherwise this is the hardest difficulty used before stopping, which is a lower bound.
+	 */
+	public Difficulty getDifficulty() { return difficulty; }
+
+	/**Get the amount of steps taken, or 0 if the grade came from the cache.*/
+	public int getStepCount() { return stepCount; }
+
+	/**Check if this is a complete grade for a sudoku with a unique solution.*/
+	public boolean isGraded() {
+		return (outcome == Outcome.GRADED) && (difficulty != Difficulty.UNGRADED);
+	}
+
+	@Override
+	public String toString() {
+		return outcome + " (" + difficulty + " after " + stepCount + " steps)";
+	}
+
+	public enum Outcome {
+		/**Solved as far as the strategies could, the difficulty is the final grade.*/
+		GRADED,
+		/**The strategies up to the ceiling got stuck, so the grade is above the ceiling or there is no unique solution.*/
+		EXCEEDS_CEILING,
+		/**The step or time budget ran out.*/
+		BUDGET_EXHAUSTED,
+		/**The cancellation token was cancelled.*/
+		CANCELLED,
+	}
+}
@@ -0,0 +1,14 @@
+package shared.evaluation;
+
+/**Flag for stopping a grade from another thread. Once cancelled, a token stays cancelled.*/
+public final class CancellationToken {
+	private volatile boolean cancelled = false;
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,257 @@
+package shared.evaluation;
+
+import shared.model.Sudoku;
+import shared.model.SudokuCandidates;
+import shared.utility.RuntimeAssert;
+
+/**Exact cover solver using Knuth's Dancing Links (Algorithm X).
+ * A sudoku is 324 constraints (every cell filled, and every digit once per row, column and square),
+ * covered by 729 options (one per cell and digit), where each option satisfies exactly 4 constraints.
+ *
+ * The whole link structure is built once in the constructor. Every solve undoes its own changes,
+ * so solving does not allocate anything except for the returned solution.
+ * Instances should not be used from several threads at once.
+ */
+public class DancingLinksSolver implements ISudokuSolver {
+	private static final int COLUMN_COUNT = 324;
+	private static final int OPTION_COUNT = 729;
+	private static final int ROOT = 0;
+	/**Nodes 1-324 are column headers, option nodes start after them.*/
+	private static final int FIRST_OPTION_NODE = COLUMN_COUNT + 1;
+	private static final int NODE_COUNT = FIRST_OPTION_NODE + OPTION_COUNT * 4;
+
+	private final int[] left = new int[NODE_COUNT];
+	private final int[] right = new int[NODE_COUNT];
+	private final int[] up = new int[NODE_COUNT];
+	private final int[] down = new int[NODE_COUNT];
+	/**Column header of every node.*/
+	private final int[] column = new int[NODE_COUNT];
+	/**Amount of options still linked into every column, indexed by header node.*/
+	private final int[] columnSize = new int[COLUMN_COUNT + 1];
+
+	/**Options picked by the search so far, as node indices.*/
+	private final int[] chosenNodes = new int[81];
+	/**Options forced by the givens of the current sudoku, as node indices.*/
+	private final int[] givenNodes = new int[81];
+	private final int[] solution = new int[81];
+	private final int[] rowMasks = new int[9];
+	private final int[] columnMasks = new int[9];
+	private final int[] squareMasks = new int[9];
+
+	private int solutionCount;
+	private int solutionCap;
+
+	public DancingLinksSolver() {
+		//Header row, circular with the root
+		for (int header = 0; header <= COLUMN_COUNT; header++) {
+			left[header] = (header == 0) ? COLUMN_COUNT : header - 1;
+			right[header] = (header == COLUMN_COUNT) ? 0 : header + 1;
+			up[header] = header;
+			down[header] = header;
+			column[header] = header;
+		}
+
+		//One row of 4 nodes per option, appended to the bottom of each of its columns
+		for (int option = 0; option < OPTION_COUNT; option++) {
+			int index = option / 9;
+			int digit = option % 9;
+			int[] headers = {
+				1 + index,
+				1 + 81 + (index / 9) * 9 + digit,
+				1 + 162 + (index % 9) * 9 + digit,
+				1 + 243 + Sudoku.indexToSquare(index) * 9 + digit,
+			};
+
+			int first = optionNode(option);
+			for (int k = 0; k < 4; k++) {
+				int node = first + k;
+				int header = headers[k];
+
+				column[node] = header;
+				up[node] = up[header];
+				down[node] = header;
+				down[up[header]] = node;
+				up[header] = node;
+				columnSize[header]++;
+
+				left[node] = first + (k + 3) % 4;
+				right[node] = first + (k + 1) % 4;
+			}
+		}
+	}
+
+	@Override
+	public int countSolutions(Sudoku sudoku, int cap) {
+		RuntimeAssert.notNull(sudoku);
+		RuntimeAssert.inRange(cap, 1, Integer.MAX_VALUE);
+
+		solutionCount = 0;
+		solutionCap = cap;
+
+		if (!hasLegalGivens(sudoku)) {
+			return 0;
+		}
+
+		//Force the givens into the cover, then search for the rest
+		int givenCount = 0;
+		for (int i = 0; i < 81; i++) {
+			int value = sudoku.get(i);
+			if (value != 0) {
+				int node = optionNode(i * 9 + value - 1);
+				selectOption(node);
+				givenNodes[givenCount++] = node;
+			}
+		}
+
+		search(0);
+
+		//Restore the full structure for the next solve
+		for (int given = givenCount - 1; given >= 0; given--) {
+			deselectOption(givenNodes[given]);
+		}
+
+		if (solutionCount > 0) {
+			for (int given = 0; given < givenCount; given++) {
+				storeOption(givenNodes[given]);
+			}
+		}
+
+		return solutionCount;
+	}
+
+	@Override
+	public Sudoku getSolution(Sudoku sudoku) {
+		if (countSolutions(sudoku, 2) != 1) {
+			return null;
+		}
+
+		Sudoku result = sudoku.clone();
+		for (int i = 0; i < 81; i++) {
+			result.set(i, solution[i]);
+		}
+
+		return result;
+	}
+
+	private void search(int depth) {
+		if (right[ROOT] == ROOT) {
+			if (solutionCount == 0) {
+				for (int chosen = 0; chosen < depth; chosen++) {
+					storeOption(chosenNodes[chosen]);
+				}
+			}
+			solutionCount++;
+			return;
+		}
+
+		//Branch on the column with the fewest options left
+		int best = right[ROOT];
+		for (int header = right[best]; header != ROOT; header = right[header]) {
+			if (columnSize[header] < columnSize[best]) {
+				best = header;
+			}
+		}
+
+		if (columnSize[best] == 0) {
+			return;
+		}
+
+		cover(best);
+		for (int node = down[best]; (node != best) && (solutionCount < solutionCap); node = down[node]) {
+			chosenNodes[depth] = node;
+			for (int other = right[node]; other != node; other = right[other]) {
+				cover(column[other]);
+			}
+
+			search(depth + 1);
+
+			for (int other = left[node]; other != node; other = left[other]) {
+				uncover(column[other]);
+			}
+		}
+		uncover(best);
+	}
+
+	private void cover(int header) {
+		left[right[header]] = left[header];
+		right[left[header]] = right[header];
+
+		for (int row = down[header]; row != header; row = down[row]) {
+			for (int node = right[row]; node != row; node = right[node]) {
+				up[down[node]] = up[node];
+				down[up[node]] = down[node];
+				columnSize[column[node]]--;
+			}
+		}
+	}
+
+	private void uncover(int header) {
+		for (int row = up[header]; row != header; row = up[row]) {
+			for (int node = left[row]; node != row; node = left[node]) {
+				columnSize[column[node]]++;
+				up[down[node]] = node;
+				down[up[node]] = node;
+			}
+		}
+
+		left[right[header]] = header;
+		right[left[header]] = header;
+	}
+
+	private void selectOption(int node) {
+		cover(column[node]);
+		for (int other = right[node]; other != node; other = right[other]) {
+			cover(column[other]);
+		}
+	}
+
+	private void deselectOption(int node) {
+		for (int other = left[node]; other != node; other = left[other]) {
+			uncover(column[other]);
+		}
+		uncover(column[node]);
+	}
+
+	/**Write the cell and digit of the option a node belongs to into the solution.*/
+	private void storeOption(int node) {
+		int option = (node - FIRST_OPTION_NODE) / 4;
+		solution[option / 9] = option % 9 + 1;
+	}
+
+	/**Check that no digit appears twice in a row, column or square.
+	 * Covering conflicting givens would corrupt the links, so those are rejected up front.
+	 */
+	private boolean hasLegalGivens(Sudoku sudoku) {
+		for (int i = 0; i < 9; i++) {
+			rowMasks[i] = 0;
+			columnMasks[i] = 0;
+			squareMasks[i] = 0;
+		}
+
+		for (int i = 0; i < 81; i++) {
+			int value = sudoku.get(i);
+			if (value == 0) {
+				continue;
+			}
+
+			int bit = SudokuCandidates.candidateBit(value);
+			int row = i / 9;
+			int col = i % 9;
+			int sqr = Sudoku.indexToSquare(i);
+
+			if (((rowMasks[row] | columnMasks[col] | squareMasks[sqr]) & bit) != 0) {
+				return false;
+			}
+
+			rowMasks[row] |= bit;
+			columnMasks[col] |= bit;
+			squareMasks[sqr] |= bit;
+		}
+
+		return true;
+	}
+
+	private static int optionNode(int option) {
+		return FIRST_OPTION_NODE + option * 4;
+	}
+}
@@ -0,0 +1,27 @@
+package shared.evaluation;
+
+/**Step listener that only keeps what grading needs: the hardest difficulty used, and how many steps were taken.*/
+public class DifficultyTracker implements IStepListener {
+	private Difficulty hardest = Difficulty.UNGRADED;
+	private int stepCount = 0;
+	private int solutionCount = 0;
+
+	@Override
+	public void onStep(StrategyResult step) {
+		Difficulty difficulty = step.getSource().getDifficulty();
+		if (difficulty.compareTo(hardest) > 0) {
+			hardest = difficulty;
+		}
+
+		stepCount++;
+		if (step.getType() == StrategyResult.Type.SOLUTION) {
+			solutionCount++;
+		}
+	}
+
+	/**Get the difficulty of the hardest strategy that took a step, or Difficulty.UNGRADED if there were no steps.*/
+	public Difficulty getHardest() { return hardest; }
+	public int getStepCount() { return stepCount; }
+	/**Get the amount of steps that solved an index.*/
+	public int getSolutionCount() { return solutionCount; }
+}
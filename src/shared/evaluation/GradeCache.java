@@ -0,0 +1,139 @@
+package shared.evaluation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import shared.model.CompactSudoku;
+import shared.model.Sudoku;
+import shared.utility.RuntimeAssert;
+
+/**Bounded cache of grading results, keyed by the compact form of the graded sudoku.
+ * When full, the least recently used entry is evicted. All methods are thread-safe, so one cache can be shared by several solvers.
+ *
+ * Hit, miss and eviction counts are kept for sizing the cache, and can be reset with resetCounters.
+ */
+public class GradeCache {
+	private final int capacity;
+	private final boolean storeSolutions;
+	private final LinkedHashMap<CompactSudoku, Entry> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	/**Construct a cache that does not store solutions.
+	 *
+	 * @param _capacity	Maximum amount of entries, atleast 1.
+	 */
+	public GradeCache(int _capacity) {
+		this(_capacity, false);
+	}
+
+	/**
+	 * @param _capacity	Maximum amount of entries, atleast 1.
+	 * @param _storeSolutions	If true, the solution found while grading is stored alongside the difficulty.
+	 */
+	public GradeCache(int _capacity, boolean _storeSolutions) {
+		RuntimeAssert.inRange(_capacity, 1, Integer.MAX_VALUE);
+
+		capacity = _capacity;
+		storeSolutions = _storeSolutions;
+
+		//Access order makes iteration start at the least recently used entry
+		entries = new LinkedHashMap<CompactSudoku, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CompactSudoku, Entry> eldest) {
+				if (size() > capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**Look up the grading result for a sudoku, and count it as a hit or miss.
+	 *
+	 * @param key	Compact form of the sudoku.
+	 * @return	The cached entry, or null if there is none.
+	 */
+	public synchronized Entry get(CompactSudoku key) {
+		RuntimeAssert.notNull(key);
+
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+		}
+		else {
+			hits++;
+		}
+
+		return entry;
+	}
+
+	/**Look up the grading result for a sudoku without counting it as a hit or miss, for uses other than grading.
+	 * It still counts as a use for eviction.
+	 *
+	 * @param key	Compact form of the sudoku.
+	 * @return	The cached entry, or null if there is none.
+	 */
+	public synchronized Entry peek(CompactSudoku key) {
+		RuntimeAssert.notNull(key);
+
+		return entries.get(key);
+	}
+
+	/**Store the grading result for a sudoku, replacing any earlier result.
+	 *
+	 * @param key	Compact form of the graded sudoku.
+	 * @param difficulty	The grade.
+	 * @param solution	Solution found while grading, or null if there is none. Ignored unless this cache stores solutions.
+	 */
+	public synchronized void put(CompactSudoku key, Difficulty difficulty, Sudoku solution) {
+		RuntimeAssert.notNull(key);
+		RuntimeAssert.notNull(difficulty);
+
+		CompactSudoku storedSolution = (storeSolutions && (solution != null)) ? new CompactSudoku(solution) : null;
+		entries.put(key, new Entry(difficulty, storedSolution));
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized void resetCounters() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	public synchronized int size() { return entries.size(); }
+	public synchronized long getHitCount() { return hits; }
+	public synchronized long getMissCount() { return misses; }
+	public synchronized long getEvictionCount() { return evictions; }
+	public int getCapacity() { return capacity; }
+	public boolean isStoringSolutions() { return storeSolutions; }
+
+	@Override
+	public synchronized String toString() {
+		return "GradeCache(" + entries.size() + "/" + capacity + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ")";
+	}
+
+	/**Immutable grading result.*/
+	public static final class Entry {
+		private final Difficulty difficulty;
+		private final CompactSudoku solution;
+
+		private Entry(Difficulty _difficulty, CompactSudoku _solution) {
+			difficulty = _difficulty;
+			solution = _solution;
+		}
+
+		public Difficulty getDifficulty() { return difficulty; }
+
+		/**Get the solution found while grading, or null if it was not stored or there is none.*/
+		public CompactSudoku getSolution() { return solution; }
+	}
+}
@@ -0,0 +1,46 @@
+package shared.evaluation;
+
+import shared.utility.RuntimeAssert;
+
+/**Limits for SudokuSolver.grade, for when only grades up to some difficulty are of interest. Immutable.*/
+public final class GradeLimits {
+	/**Limits that never stop a grade early.*/
+	public static final GradeLimits NONE = new GradeLimits(Difficulty.ANY, Integer.MAX_VALUE, Long.MAX_VALUE, null);
+
+	private final Difficulty ceiling;
+	private final int maxSteps;
+	private final long timeBudgetNanos;
+	private final CancellationToken cancellation;
+
+	/**
+	 * @param _ceiling	Hardest difficulty of interest. Strategies above it are never tried.
+	 * @param _maxSteps	Maximum amount of steps, including implied eliminations, atleast 1.
+	 * @param _timeBudgetNanos	Maximum time to spend solving in nanoseconds, or Long.MAX_VALUE for no limit.
+	 * @param _cancellation	Token that stops the grade once cancelled. May be null.
+	 */
+	public GradeLimits(Difficulty _ceiling, int _maxSteps, long _timeBudgetNanos, CancellationToken _cancellation) {
+		RuntimeAssert.notNull(_ceiling);
+		if ((_maxSteps < 1) || (_timeBudgetNanos < 1)) {
+			throw new IllegalArgumentException("Grade budgets need to be atleast 1!");
+		}
+
+		ceiling = _ceiling;
+		maxSteps = _maxSteps;
+		timeBudgetNanos = _timeBudgetNanos;
+		cancellation = _cancellation;
+	}
+
+	/**Get limits that only stop at a difficulty ceiling.*/
+	public static GradeLimits ceiling(Difficulty ceiling) {
+		return new GradeLimits(ceiling, Integer.MAX_VALUE, Long.MAX_VALUE, null);
+	}
+
+	public Difficulty getCeiling() { return ceiling; }
+	public int getMaxSteps() { return maxSteps; }
+	public long getTimeBudgetNanos() { return timeBudgetNanos; }
+	public CancellationToken getCancellation() { return cancellation; }
+
+	public boolean isCancelled() {
+		return (cancellation != null) && cancellation.isCancelled();
+	}
+}
@@ -0,0 +1,14 @@
+package shared.evaluation;
+
+/**Receives the steps taken while solving, in the order they are applied to an AnnotatedSudoku.*/
+public interface IStepListener {
+	public void onStep(StrategyResult step);
+
+	/**Combine with another listener, which receives every step after this one.*/
+	public default IStepListener andThen(IStepListener next) {
+		return (step) -> {
+			onStep(step);
+			next.onStep(step);
+		};
+	}
+}
@@ -0,0 +1,35 @@
+package shared.evaluation;
+
+import shared.model.SudokuSelection;
+
+/**Read-only view of a sudoku being solved, where everything is exposed as primitive bitmasks.
+ * Candidate and digit masks are 9 bits wide, with bit (digit - 1) standing for the digit.
+ * Position masks are 9 bits wide as well, with bit p standing for SudokuHouses.cellsOf(house)[p].
+ * Houses are numbered as in SudokuHouses.
+ *
+ * Filled indices have no candidates, so they never show up in candidate or position masks.
+ */
+public interface ISudokuMaskView {
+	/**Get the value at an index, or 0 if it is empty.*/
+	int getValue(int index);
+
+	/**Get the candidates of an index as a digit mask.*/
+	int getCandidateMask(int index);
+
+	/**Get the positions inside a house that have a digit as a candidate.
+	 *
+	 * @param house	House number.
+	 * @param digit	Digit from 1 to 9.
+	 * @return	The position mask.
+	 */
+	int getPositionMask(int house, int digit);
+
+	/**Get the digits that are placed in a house, as a digit mask.*/
+	int getSolvedMask(int house);
+
+	/**Get the empty cells with exactly two candidates. The returned selection is kept up to date while solving, and must not be modified.*/
+	SudokuSelection getBivalueCells();
+
+	/**Get the indices in a selection that hold a value.*/
+	SudokuSelection indicesOf(int value, SudokuSelection selection);
+}
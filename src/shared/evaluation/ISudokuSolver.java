@@ -0,0 +1,28 @@
+package shared.evaluation;
+
+import shared.model.Sudoku;
+
+/**Common contract for anything that can find the solutions of a sudoku.
+ * Lets the generator and batch tools pick a solving engine by configuration.
+ */
+public interface ISudokuSolver {
+	/**Count the solutions of a sudoku, stopping once the cap is reached. The given sudoku is not modified.
+	 *
+	 * @param sudoku	The sudoku to solve.
+	 * @param cap		Stop searching after this many solutions have been found. Must be atleast 1.
+	 * @return	The amount of solutions, or cap if there are cap or more solutions.
+	 */
+	public int countSolutions(Sudoku sudoku, int cap);
+
+	/**Get the singular solution for a sudoku without modifying it. Returns null if there are no solutions, or more than one.
+	 *
+	 * @param sudoku	The sudoku to solve
+	 * @return	The singular solution for the given sudoku, or null if there is no unique solution.
+	 */
+	public Sudoku getSolution(Sudoku sudoku);
+
+	/**Check if a sudoku has exactly one solution.*/
+	public default boolean hasUniqueSolution(Sudoku sudoku) {
+		return countSolutions(sudoku, 2) == 1;
+	}
+}
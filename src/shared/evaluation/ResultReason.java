@@ -1,60 +1,157 @@
 package shared.evaluation;
 
+import java.util.Arrays;
+
 import shared.model.SudokuCandidates;
 import shared.model.SudokuSelection;
-import shared.utility.ArrayExtras;
 import shared.utility.RuntimeAssert;
 
-public class ResultReason {
-	private SudokuSelection cells;
-	private SudokuCandidates notes;
+/**Cells and candidate notes that explain a strategy result. Reasons are immutable, so one can be shared by several results.
+ * Cells are stored as the two bit words of a selection, and notes as one packed int per noted index: (index << 9) | candidate mask.
+ * A SudokuSelection or SudokuCandidates is only built when getCells or getNotes is called.
+ */
+public final class ResultReason {
+	private static final int[] NO_NOTES = new int[0];
+
+	private final long cellsLow;
+	private final long cellsHigh;
+	/**Packed notes in ascending index order, noted indices are also part of the cells.*/
+	private final int[] notes;
+
+	/**Construct a reason made of cells only.
+	 *
+	 * @param _cells	Cells that explain the result. Only read during construction.
+	 */
+	public ResultReason(SudokuSelection _cells) {
+		RuntimeAssert.notNull(_cells);
 
-	public ResultReason() {
-		this(new SudokuSelection());
+		cellsLow = _cells.getLowBits();
+		cellsHigh = _cells.getHighBits();
+		notes = NO_NOTES;
 	}
 
-	public ResultReason(SudokuSelection _cells) {
-		cells = _cells;
+	/**Construct a reason made of a single candidate note.*/
+	public ResultReason(int index, int candidate) {
+		this(new int[] {index}, SudokuCandidates.candidateBit(candidate));
+	}
+
+	/**Construct a reason where several indices share the same candidate notes, such as the cells of a naked pair.
+	 *
+	 * @param indices	Distinct indices with notes.
+	 * @param candidateMask	9-bit mask of the candidates noted at every index.
+	 */
+	public ResultReason(int[] indices, int candidateMask) {
+		RuntimeAssert.inRange(candidateMask, 1, SudokuCandidates.ALL_CANDIDATES + 1);
+
+		SudokuSelection cells = new SudokuSelection();
+		notes = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			RuntimeAssert.inRange(indices[i], 0, 81);
+
+			cells.add(indices[i]);
+			notes[i] = pack(indices[i], candidateMask);
+		}
+		Arrays.sort(notes);
 
-		notes = new SudokuCandidates();
-		notes.removeAllCandidates();
+		cellsLow = cells.getLowBits();
+		cellsHigh = cells.getHighBits();
 	}
 
+	/**Construct a reason where each index has its own candidate notes, such as the cells of a wing.
+	 * Indices with an empty mask are left out of the reason, like indices without candidates in a full set of notes.
+	 *
+	 * @param indices	Distinct indices with notes.
+	 * @param candidateMasks	9-bit mask of the candidates noted at the index in the same position.
+	 */
+	public ResultReason(int[] indices, int[] candidateMasks) {
+		RuntimeAssert.areEqual(indices.length, candidateMasks.length);
+
+		SudokuSelection cells = new SudokuSelection();
+		int[] packed = new int[indices.length];
+		int count = 0;
+		for (int i = 0; i < indices.length; i++) {
+			RuntimeAssert.inRange(indices[i], 0, 81);
+			RuntimeAssert.inRange(candidateMasks[i], 0, SudokuCandidates.ALL_CANDIDATES + 1);
+
+			if (candidateMasks[i] != 0) {
+				RuntimeAssert.areEqual(cells.contains(indices[i]), false); //Distinct indices only
+
+				cells.add(indices[i]);
+				packed[count++] = pack(indices[i], candidateMasks[i]);
+			}
+		}
+		notes = (count == packed.length) ? packed : Arrays.copyOf(packed, count);
+		Arrays.sort(notes);
+
+		cellsLow = cells.getLowBits();
+		cellsHigh = cells.getHighBits();
+	}
+
+	/**Construct a reason from a full set of notes, where every index with candidates is part of the reason.
+	 *
+	 * @param _notes	Notes that explain the result. Only read during construction.
+	 */
 	public ResultReason(SudokuCandidates _notes) {
-		notes = _notes;
-		cells = _notes.getNonEmpty();
+		SudokuSelection cells = _notes.getNonEmpty();
+		notes = new int[cells.size()];
+
+		int note = 0;
+		for (int index = 0; index < 81; index++) {
+			int mask = _notes.getCandidateMask(index);
+			if (mask != 0) {
+				notes[note++] = pack(index, mask);
+			}
+		}
+
+		cellsLow = cells.getLowBits();
+		cellsHigh = cells.getHighBits();
 	}
 
 	public boolean contains(int index) {
 		RuntimeAssert.inRange(index, 0, 81);
 
-		return cells.contains(index);
+		return (index < 64) ? ((cellsLow >>> index) & 1) != 0 : ((cellsHigh >>> (index - 64)) & 1) != 0;
 	}
 
 	public int size() {
-		return cells.size();
+		return Long.bitCount(cellsLow) + Long.bitCount(cellsHigh);
 	}
 
 	public boolean hasNotesFor(int index) {
-		RuntimeAssert.inRange(index, 0, 81);
-
-		return ArrayExtras.frequency(notes.getMask(index), true) > 0;
+		return getNoteMask(index) != 0;
 	}
 
-	public void addNote(int index, int candidate) {
+	/**Get the noted candidates of an index as a 9-bit mask, which is 0 if the index has no notes.*/
+	public int getNoteMask(int index) {
 		RuntimeAssert.inRange(index, 0, 81);
-		RuntimeAssert.inRange(candidate, 1, 10);
 
-		if (!cells.contains(index)) {
-			cells.add(index);
+		for (int note : notes) {
+			if ((note >>> 9) == index) {
+				return note & SudokuCandidates.ALL_CANDIDATES;
+			}
 		}
 
-		notes.addCandidate(index, candidate);
+		return 0;
 	}
 
-	public void addReason(int index) {
-		RuntimeAssert.inRange(index, 0, 81);
+	/**Get the cells of this reason as a new selection.*/
+	public SudokuSelection getCells() {
+		return SudokuSelection.fromBits(cellsLow, cellsHigh);
+	}
+
+	/**Get the notes of this reason as new candidates, where indices without notes have no candidates.*/
+	public SudokuCandidates getNotes() {
+		SudokuCandidates result = new SudokuCandidates();
+		result.removeAllCandidates();
+
+		for (int note : notes) {
+			result.setCandidateMask(note >>> 9, note & SudokuCandidates.ALL_CANDIDATES);
+		}
+
+		return result;
+	}
 
-		cells.add(index);
+	private static int pack(int index, int candidateMask) {
+		return (index << 9) | candidateMask;
 	}
 }
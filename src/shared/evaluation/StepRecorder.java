@@ -0,0 +1,24 @@
+package shared.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**Step listener that keeps every step, for showing hints or replaying a solve.*/
+public class StepRecorder implements IStepListener {
+	private List<StrategyResult> steps = new ArrayList<>();
+
+	@Override
+	public void onStep(StrategyResult step) {
+		steps.add(step);
+	}
+
+	/**Get all steps so far, oldest first. The list is live and can't be modified.*/
+	public List<StrategyResult> getSteps() {
+		return Collections.unmodifiableList(steps);
+	}
+
+	public void clear() {
+		steps.clear();
+	}
+}
@@ -0,0 +1,46 @@
+package shared.evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import shared.utility.RuntimeAssert;
+
+/**Step listener that keeps only the most recent steps, so a failing solve can be explained without storing all of it.*/
+public class StepRingBuffer implements IStepListener {
+	private final StrategyResult[] ring;
+	/**Amount of steps received, the next step is stored at totalCount % ring.length.*/
+	private int totalCount = 0;
+
+	/**
+	 * @param capacity	Amount of steps to keep, atleast 1.
+	 */
+	public StepRingBuffer(int capacity) {
+		RuntimeAssert.inRange(capacity, 1, Integer.MAX_VALUE);
+
+		ring = new StrategyResult[capacity];
+	}
+
+	@Override
+	public void onStep(StrategyResult step) {
+		ring[totalCount % ring.length] = step;
+		totalCount++;
+	}
+
+	/**Get the kept steps, oldest first.*/
+	public List<StrategyResult> getSteps() {
+		int kept = Math.min(totalCount, ring.length);
+		List<StrategyResult> results = new ArrayList<>(kept);
+
+		for (int step = totalCount - kept; step < totalCount; step++) {
+			results.add(ring[step % ring.length]);
+		}
+
+		return results;
+	}
+
+	/**Get the amount of steps received, including the ones that are no longer kept.*/
+	public int getTotalCount() { return totalCount; }
+
+	/**Get the number of the oldest kept step, counting from 0 for the first step received.*/
+	public int getFirstKeptIndex() { return Math.max(0, totalCount - ring.length); }
+}
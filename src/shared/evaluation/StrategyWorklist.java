@@ -0,0 +1,60 @@
+package shared.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import shared.model.SudokuSelection;
+
+/**Keeps track of which units of a strategy have to be looked at again during a single solve.
+ * Units whose dependencies have not changed since their last scan give the same results as then, so those are reused.
+ * This gives the exact same result list, in the same order, as a full scan with AUnitSudokuStrategy.apply.
+ */
+public class StrategyWorklist {
+	private final AUnitSudokuStrategy strategy;
+	/**Cells changed since this strategy last ran. Starts out with all cells, since nothing has been scanned yet.*/
+	private final SudokuSelection dirtyCells = SudokuSelection.all();
+	/**Results from the last scan of every unit, or null if the unit has never been scanned.*/
+	private final List<List<StrategyResult>> unitResults;
+
+	public StrategyWorklist(AUnitSudokuStrategy _strategy) {
+		strategy = _strategy;
+
+		int unitCount = strategy.getUnitCount();
+		unitResults = new ArrayList<>(unitCount);
+		for (int unit = 0; unit < unitCount; unit++) {
+			unitResults.add(null);
+		}
+	}
+
+	/**Run the strategy, only scanning units with changed dependencies.
+	 *
+	 * @param sudokuEvalView	The sudoku to look at.
+	 * @return	The same results a full scan would give.
+	 */
+	public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
+		List<StrategyResult> results = new ArrayList<>();
+
+		for (int unit = 0; unit < unitResults.size(); unit++) {
+			List<StrategyResult> cached = unitResults.get(unit);
+
+			if ((cached == null) || strategy.getUnitDependencies(unit).intersects(dirtyCells)) {
+				List<StrategyResult> scanned = new ArrayList<>(0);
+				strategy.applyToUnit(unit, sudokuEvalView, scanned);
+
+				cached = scanned.isEmpty() ? Collections.emptyList() : scanned;
+				unitResults.set(unit, cached);
+			}
+
+			results.addAll(cached);
+		}
+
+		dirtyCells.clear();
+		return results;
+	}
+
+	/**Mark cells as changed, so units depending on them are scanned on the next run.*/
+	public void markDirty(SudokuSelection changedCells) {
+		dirtyCells.addAll(changedCells);
+	}
+}
@@ -1,35 +1,151 @@
 package shared.evaluation;
 
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import shared.evaluation.strategies.LinearEliminationStrategy;
 import shared.io.SDMConverter;
-import shared.model.DebugFormatter;
+import shared.logging.AsyncEventSink;
+import shared.logging.EventLevel;
+import shared.logging.EventType;
+import shared.logging.ISudokuEventSink;
+import shared.logging.SudokuEvent;
+import shared.model.CompactSudoku;
 import shared.model.Sudoku;
-import shared.model.SudokuSelection;
 import shared.utility.RuntimeAssert;
 
-public class SudokuSolver {
-	public List<ASudokuStrategy> strategies;
-	private SDMConverter sdmConverter = new SDMConverter();
+/**Grades sudokus by solving them with a set of strategies, and counts solutions with an exact solution engine.
+ * The strategies are fixed on construction. Grading does not modify the solver, so grade and gradeAll may be called from several threads at once,
+ * as long as the settings are not changed meanwhile. The solution engine is not shared that way, see countSolutions.
+ */
+public class SudokuSolver implements ISudokuSolver {
+	private static final SDMConverter SDM_CONVERTER = new SDMConverter();
+	/**Amount of steps kept for explaining a failed solve.*/
+	private static final int FAILURE_STEP_HISTORY = 64;
+
+	/**Strategies sorted by difficulty.*/
+	private final List<ASudokuStrategy> strategies;
+	/**Strategies that are run while solving, which leaves out linear elimination as AnnotatedSudoku already does it.*/
+	private final List<ASudokuStrategy> activeStrategies;
+	/**Strategy that implied eliminations are logged as, or null if no LinearEliminationStrategy was configured.*/
+	private final ASudokuStrategy impliedEliminationSource;
+	/**Engine used for exact solution counting, which the strategies can't do.*/
+	private final ISudokuSolver solutionEngine;
+	/**If true, candidates removed because a peer holds their value are logged as linear eliminations, as if a strategy found them.*/
+	private volatile boolean logImpliedEliminations = true;
+	/**Cache of earlier grades, or null if grades are not cached.*/
+	private volatile GradeCache gradeCache = null;
+	/**Receives verbose grading output and solver failures.*/
+	private volatile ISudokuEventSink eventSink = AsyncEventSink.shared();
 
 	public SudokuSolver() {
-		strategies = new ArrayList<>();
+		this(new ASudokuStrategy[0]);
 	}
 
 	public SudokuSolver(ASudokuStrategy[] _strategies) {
-		strategies = new ArrayList<>(_strategies.length);
+		this(_strategies, new BacktrackingSolver());
+	}
+
+	/**Construct a solver with a specific engine for solution counting and uniqueness checks.
+	 * Candidates that a placed value rules out are always removed from its peers while solving.
+	 * If a LinearEliminationStrategy is among the strategies, those removals are logged as its steps.
+	 * Otherwise they are not logged and add no difficulty.
+	 *
+	 * @param _strategies	Strategies used for grading.
+	 * @param _solutionEngine	Engine used by countSolutions, hasUniqueSolution and getSolution.
+	 */
+	public SudokuSolver(ASudokuStrategy[] _strategies, ISudokuSolver _solutionEngine) {
+		RuntimeAssert.notNull(_solutionEngine);
+		solutionEngine = _solutionEngine;
+
+		List<ASudokuStrategy> sorted = new ArrayList<>(_strategies.length);
 
 		for (ASudokuStrategy element : _strategies) {
-			strategies.add(element);
+			sorted.add(element);
 		}
 
 		//Sort by difficulty
-		strategies.sort((first, second) -> first.getDifficulty().compareTo(second.getDifficulty()));
+		sorted.sort((first, second) -> first.getDifficulty().compareTo(second.getDifficulty()));
+		strategies = Collections.unmodifiableList(sorted);
+
+		//Linear elimination is already done by AnnotatedSudoku on every placement, so it would never find anything
+		List<ASudokuStrategy> active = new ArrayList<>(sorted.size());
+		ASudokuStrategy linearElimination = null;
+		for (ASudokuStrategy strat : sorted) {
+			if (!(strat instanceof LinearEliminationStrategy)) {
+				active.add(strat);
+			}
+			else if (linearElimination == null) {
+				linearElimination = strat;
+			}
+		}
+		activeStrategies = Collections.unmodifiableList(active);
+		impliedEliminationSource = linearElimination;
+	}
+
+	/**Get the strategies used for grading, sorted by difficulty. The list can't be modified.*/
+	public List<ASudokuStrategy> getStrategies() {
+		return strategies;
 	}
 	
+	/**Choose whether implied eliminations are reported as steps. They are always applied, as AnnotatedSudoku does that on every placement.
+	 * Reporting them keeps the steps and grades the same as when LinearEliminationStrategy had to find them, turning it off skips that bookkeeping.
+	 * Grades depend on this setting, so changing it clears the grade cache.
+	 *
+	 * @param enabled	True to log implied eliminations, which is the default.
+	 */
+	public synchronized void setLogImpliedEliminations(boolean enabled) {
+		if (enabled == logImpliedEliminations) {
+			return;
+		}
+
+		logImpliedEliminations = enabled;
+
+		GradeCache cache = gradeCache;
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	public boolean isLoggingImpliedEliminations() {
+		return logImpliedEliminations;
+	}
+
+	/**Set a cache for grades, which may be shared with other solvers that use the same strategies.
+	 * Boards that were graded before are not solved again, and stored solutions are also used by getSolution.
+	 * Cached grades are keyed by the board alone, so solvers sharing a cache must also agree on setLogImpliedEliminations.
+	 *
+	 * @param _gradeCache	The cache to use, or null to stop caching.
+	 */
+	public void setGradeCache(GradeCache _gradeCache) {
+		gradeCache = _gradeCache;
+	}
+
+	public GradeCache getGradeCache() {
+		return gradeCache;
+	}
+
+	/**Set where verbose grading output and solver failures go. Failing boards end up in the sink's known issues.
+	 *
+	 * @param _eventSink	The sink to use, such as ISudokuEventSink.DISCARD. Defaults to AsyncEventSink.shared().
+	 */
+	public void setEventSink(ISudokuEventSink _eventSink) {
+		RuntimeAssert.notNull(_eventSink);
+
+		eventSink = _eventSink;
+	}
+
+	public ISudokuEventSink getEventSink() {
+		return eventSink;
+	}
+
 	public Difficulty grade(Sudoku sudoku) {
 		return grade(sudoku, true);
 	}
@@ -37,143 +153,369 @@ public class SudokuSolver {
 	/**Calculate a difficulty for a given sudoku by solving it.
 	 * 
 	 * @param sudoku
-	 * @param silent	If true, debug output is hidden.
+	 * @param silent	If false, progress and every step are published to the event sink.
 	 * @return	The difficulty of the hardest technique used while solving, or Difficulty.UNGRADED if there is no unique solution.
 	 */
 	public Difficulty grade(Sudoku sudoku, boolean silent) {
-		int solved = 81 - sudoku.valueFilter(0, SudokuSelection.all()).size();
+		return grade(sudoku, silent, null);
+	}
+
+	/**Calculate a difficulty for a given sudoku by solving it, and report every step taken to a listener.
+	 * When a listener is given the grade cache is skipped on lookup, because the steps must come from a real solve.
+	 * The result of that solve is still cached.
+	 *
+	 * @param sudoku
+	 * @param silent	If true, debug output is hidden.
+	 * @param listener	Receives every step of the solve, such as for showing hints. May be null.
+	 * @return	The difficulty of the hardest technique used while solving, or Difficulty.UNGRADED if there is no unique solution.
+	 */
+	public Difficulty grade(Sudoku sudoku, boolean silent, IStepListener listener) {
+		return grade(sudoku, silent, listener, GradeLimits.NONE).getDifficulty();
+	}
+
+	/**Grade silently, but stop as soon as the grade is known to be out of bounds.
+	 *
+	 * @param sudoku
+	 * @param limits	Difficulty ceiling, budgets and cancellation for this grade.
+	 * @return	The final grade, or why grading stopped early.
+	 */
+	public BoundedGrade grade(Sudoku sudoku, GradeLimits limits) {
+		return grade(sudoku, true, null, limits);
+	}
+
+	/**Grade a sudoku within limits, and report every step taken to a listener.
+	 * Strategies harder than the ceiling are never tried, so sudokus that need them stop with Outcome.EXCEEDS_CEILING as soon as the easier strategies are stuck.
+	 * That happens in the same state where an unlimited grade would move on to the harder strategies, so grades within the ceiling are the same either way.
+	 * Budgets and cancellation are checked before every strategy pass. Only complete grades are cached.
+	 *
+	 * @param sudoku
+	 * @param silent	If true, debug output is hidden.
+	 * @param listener	Receives every step of the solve. May be null.
+	 * @param limits	Difficulty ceiling, budgets and cancellation for this grade.
+	 * @return	The final grade, or why grading stopped early.
+	 */
+	public BoundedGrade grade(Sudoku sudoku, boolean silent, IStepListener listener, GradeLimits limits) {
+		RuntimeAssert.notNull(limits);
 
-		AnnotatedSudoku solveResult = solve(sudoku, silent);
+		//Verbose output is pointless if the sink would drop it
+		silent = silent || !eventSink.isEnabled(EventLevel.INFO);
+
+		CompactSudoku cacheKey = null;
+		if (gradeCache != null) {
+			cacheKey = new CompactSudoku(sudoku);
+
+			GradeCache.Entry cached = (listener == null) ? gradeCache.get(cacheKey) : null;
+			if (cached != null) {
+				if (!silent) {
+					publishProgress("Graded before, the cached grade is " + cached.getDifficulty());
+				}
+
+				boolean exceeds = cached.getDifficulty().compareTo(limits.getCeiling()) > 0;
+				return new BoundedGrade(exceeds ? BoundedGrade.Outcome.EXCEEDS_CEILING : BoundedGrade.Outcome.GRADED, cached.getDifficulty(), 0);
+			}
+		}
+
+		//Only the printed output needs the steps after the solve, grading itself just tracks the hardest one
+		DifficultyTracker tracker = new DifficultyTracker();
+		StepRecorder recorder = silent ? null : new StepRecorder();
+
+		IStepListener stepListener = tracker;
+		if (recorder != null) {
+			stepListener = stepListener.andThen(recorder);
+		}
+		if (listener != null) {
+			stepListener = stepListener.andThen(listener);
+		}
+
+		SolveRun run = solve(sudoku, silent, stepListener, limits, tracker);
+		if (run.outcome != BoundedGrade.Outcome.GRADED) {
+			if (!silent) {
+				publishProgress("Grading stopped early: " + run.outcome);
+			}
+			return new BoundedGrade(run.outcome, tracker.getHardest(), tracker.getStepCount());
+		}
+
+		AnnotatedSudoku solveResult = run.evalData;
 		if (!solveResult.isSolved()) {
 			if (!silent) {
-				System.out.println("Grading solve failed! Sudoku may not have a unique Solution!");
+				publishProgress("Grading solve failed! Sudoku may not have a unique Solution!");
+			}
+			if (cacheKey != null) {
+				gradeCache.put(cacheKey, Difficulty.UNGRADED, null);
 			}
-			return Difficulty.UNGRADED;
+			return new BoundedGrade(BoundedGrade.Outcome.GRADED, Difficulty.UNGRADED, tracker.getStepCount());
 		}
 		
-		List<StrategyResult> stepLog = solveResult.getLog();
+		//The hardest required strategy becomes the grade
+		Difficulty grade = tracker.getHardest();
+
+		if (recorder != null) {
+			int solved = sudoku.getFilledCount();
+			for (StrategyResult step : recorder.getSteps()) {
+				if (step.getType() == StrategyResult.Type.SOLUTION) {
+					solved++;
+				}
 
-		Difficulty grade = Difficulty.UNGRADED;
-		for (StrategyResult step : stepLog) {
-			if (step.getType() == StrategyResult.Type.SOLUTION) {
-				solved++;
+				eventSink.publish(new SudokuEvent(EventLevel.INFO, EventType.GRADE_STEP, "[" + solved + "/81]" + step.getSource() + ": " + step + " value " + step.value + " at index #" + step.index));
 			}
-			
-			//The hardest required strategy becomes the grade
-			Difficulty difficulty = step.source.getDifficulty();
-			if (difficulty.compareTo(grade) > 0) {
-				grade = step.source.getDifficulty();
+		}
+
+		if (cacheKey != null) {
+			gradeCache.put(cacheKey, grade, solveResult.getSudoku());
+		}
+
+		return new BoundedGrade(BoundedGrade.Outcome.GRADED, grade, tracker.getStepCount());
+	}
+
+	/**Grade a batch of sudokus in parallel on the common ForkJoinPool.
+	 *
+	 * @param sudokus	Sudokus to grade. They are not modified.
+	 * @return	The grades in input order, and the throughput.
+	 */
+	public BatchGrades gradeAll(Stream<Sudoku> sudokus) {
+		return gradeAll(sudokus, ForkJoinPool.commonPool());
+	}
+
+	public BatchGrades gradeAll(Iterable<Sudoku> sudokus) {
+		return gradeAll(sudokus.spliterator());
+	}
+
+	public BatchGrades gradeAll(Spliterator<Sudoku> sudokus) {
+		return gradeAll(StreamSupport.stream(sudokus, false));
+	}
+
+	/**Grade a batch of sudokus in parallel, silently. Every worker grades whole sudokus on its own, nothing is shared between them except the grade cache.
+	 * Every sudoku is graded as its own task on the pool, so grading never runs on other threads.
+	 * A failing solve does not stop the batch: it is reported to the event sink like with grade, and counted as a failure.
+	 *
+	 * @param sudokus	Sudokus to grade. They are not modified.
+	 * @param pool		Pool to grade on. Its parallelism decides the amount of threads used.
+	 * @return	The grades in input order, and the throughput.
+	 */
+	public BatchGrades gradeAll(Stream<Sudoku> sudokus, ForkJoinPool pool) {
+		RuntimeAssert.notNull(sudokus);
+		RuntimeAssert.notNull(pool);
+
+		long startTime = System.nanoTime();
+
+		//One task per sudoku, collected in submission order to keep the input order
+		List<Future<Difficulty>> tasks = new ArrayList<>();
+		sudokus.sequential().forEachOrdered(sudoku -> tasks.add(pool.submit(() -> gradeOrNull(sudoku))));
+
+		List<Difficulty> grades = new ArrayList<>(tasks.size());
+		try {
+			for (Future<Difficulty> task : tasks) {
+				grades.add(task.get());
 			}
+		}
+		catch (InterruptedException e) {
+			tasks.forEach(task -> task.cancel(false));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while grading a batch", e);
+		}
+		catch (ExecutionException e) {
+			tasks.forEach(task -> task.cancel(false));
+			throw new IllegalStateException("Grading a batch failed", e.getCause());
+		}
 
-			if (!silent) {
-				System.out.println("[" + solved + "/81]" + step.getSource() + ": " + step + " value " + step.value + " at index #" + step.index);
+		long elapsed = System.nanoTime() - startTime;
+
+		//Failures are null until here, so counting them needs no shared counter
+		int failures = 0;
+		for (int i = 0; i < grades.size(); i++) {
+			if (grades.get(i) == null) {
+				grades.set(i, Difficulty.UNGRADED);
+				failures++;
 			}
 		}
 
-		return grade;
+		return new BatchGrades(grades, failures, elapsed, pool.getParallelism());
+	}
+
+	/**Grade silently, or return null if the solve failed.*/
+	private Difficulty gradeOrNull(Sudoku sudoku) {
+		try {
+			return grade(sudoku, true);
+		}
+		catch (AssertionError e) {
+			return null;
+		}
+	}
+
+	/**Count solutions with the solution engine. This is exact, even for sudokus the strategies can't solve.
+	 * The built-in engines reuse their working memory, so this should not be called from several threads at once.
+	 */
+	@Override
+	public int countSolutions(Sudoku sudoku, int cap) {
+		return solutionEngine.countSolutions(sudoku, cap);
 	}
 
+	/**Check if a sudoku has exactly one solution. This is exact, even for sudokus the strategies can't solve.*/
+	@Override
 	public boolean hasUniqueSolution(Sudoku sudoku) {
-		return solve(sudoku, false).isSolved();
+		return solutionEngine.hasUniqueSolution(sudoku);
 	}
 
-	/**Get the singular solution for a sudoku without modifying it. Returns null if no unique solution could be found.
+	/**Get the singular solution for a sudoku without modifying it. Returns null if there is no unique solution.
+	 * This is exact, even for sudokus the strategies can't solve.
 	 *
 	 * @param sudoku	The sudoku to solve
-	 * @return	The singular solution for the given sudoku, or null if no unique solution could be found.
+	 * @return	The singular solution for the given sudoku, or null if there is no unique solution.
 	 */
+	@Override
 	public Sudoku getSolution(Sudoku sudoku) {
-		AnnotatedSudoku solveResult = solve(sudoku, false);
-
-		if (!solveResult.isSolved()) {
-			return null;
-		}
-		else {
-			return solveResult.getSudoku();
+		//Only a stored solution is conclusive, an ungraded board may still be solvable by the engine
+		if ((gradeCache != null) && gradeCache.isStoringSolutions()) {
+			//Not a grade lookup, so it stays out of the hit and miss counts
+			GradeCache.Entry cached = gradeCache.peek(new CompactSudoku(sudoku));
+			if ((cached != null) && (cached.getSolution() != null)) {
+				return cached.getSolution().toSudoku();
+			}
 		}
+
+		return solutionEngine.getSolution(sudoku);
 	}
 
 	/**Apply all set strategies to solve a sudoku. The given sudoku is not modified.
 	 *
 	 * @param sudoku
-	 * @return	SudokuEvalData	Contains the
+	 * @param stepListener	Receives every step taken.
+	 * @param limits	Limits to stop solving at.
+	 * @param tracker	Tracker that is part of stepListener, used for the step budget.
+	 * @return	The annotated sudoku after solving, and whether the limits stopped the solve.
 	 */
-	private AnnotatedSudoku solve(Sudoku sudoku, boolean silent) {
+	private SolveRun solve(Sudoku sudoku, boolean silent, IStepListener stepListener, GradeLimits limits, DifficultyTracker tracker) {
 		RuntimeAssert.hasElements(strategies);
 		RuntimeAssert.notNull(sudoku);
-		/*
-		if (Memo.safeHasValueFor(solveMemo, sudoku)) {
-			return solveMemo.getValue();
-		}*/
+		//The given sudoku is never written to, so it can be reported as-is on failure
+		Sudoku originalSudoku = sudoku;
 
-		Sudoku originalSudoku = sudoku.clone();
+		//Only the last steps are kept in case the solve fails
+		StepRingBuffer recentSteps = new StepRingBuffer(FAILURE_STEP_HISTORY);
 
-		AnnotatedSudoku evalData = new AnnotatedSudoku(sudoku);
+		AnnotatedSudoku evalData = new AnnotatedSudoku(sudoku, logImpliedEliminations ? impliedEliminationSource : null, stepListener.andThen(recentSteps));
 		AnnotatedSudokuView evalView = evalData.getView();
 
+		//Strategies are sorted, so the ones within the ceiling come first
+		int strategyLimit = 0;
+		while ((strategyLimit < activeStrategies.size()) && (activeStrategies.get(strategyLimit).getDifficulty().compareTo(limits.getCeiling()) <= 0)) {
+			strategyLimit++;
+		}
+
+		long startTime = System.nanoTime();
+		BoundedGrade.Outcome outcome = BoundedGrade.Outcome.GRADED;
+
+		//Unit based strategies only rescan units touched by earlier changes
+		List<StrategyWorklist> worklists = new ArrayList<>(activeStrategies.size());
+		for (ASudokuStrategy strat : activeStrategies) {
+			worklists.add((strat instanceof AUnitSudokuStrategy) ? new StrategyWorklist((AUnitSudokuStrategy)strat) : null);
+		}
+
 		try {
 			//As long as atleast one strategy progresses, keep looping
-			while (true) {
+			while (outcome == BoundedGrade.Outcome.GRADED) {
 				int totalChanges = 0;
-				for (ASudokuStrategy strat : strategies) {
+				for (int stratIndex = 0; stratIndex < strategyLimit; stratIndex++) {
+					outcome = checkLimits(limits, tracker, startTime);
+					if (outcome != BoundedGrade.Outcome.GRADED) {
+						break;
+					}
+
+					ASudokuStrategy strat = activeStrategies.get(stratIndex);
+					StrategyWorklist worklist = worklists.get(stratIndex);
+
 					//If this strategy has no result, move on to harder strategies.
-					List<StrategyResult> stratResults = strat.apply(evalView);
+					List<StrategyResult> stratResults = (worklist != null) ? worklist.apply(evalView) : strat.apply(evalView);
 
 					int changes = evalData.applyResults(stratResults);
 					totalChanges += changes;
 
 					//If this strat had success, go back to easier strategies
 					if (changes > 0) {
+						for (StrategyWorklist other : worklists) {
+							if (other != null) {
+								other.markDirty(evalData.getChangedCells());
+							}
+						}
+						evalData.clearChangedCells();
+
 						if (!silent) {
-							System.out.println("Solver made " + changes + " changes using strategy: " + strat.toString());
+							publishProgress("Solver made " + changes + " changes using strategy: " + strat.toString());
 						}
 						break;
 					}
 				}
 
-				if (totalChanges == 0) {
+				if ((totalChanges == 0) && (outcome == BoundedGrade.Outcome.GRADED)) {
+					//Stuck, but the strategies above the ceiling might have gone further
+					if (!evalData.isSolved() && (strategyLimit < activeStrategies.size())) {
+						outcome = BoundedGrade.Outcome.EXCEEDS_CEILING;
+					}
 					break;
 				}
 			}
 			if (!silent) {
-				System.out.println("Solver has finished!");
+				publishProgress("Solver has finished!");
 			}
 		}
 		catch (AssertionError e) {
-			System.out.println();
-			System.out.println("Sudoku Solver has failed!");
-			System.out.println();
-
-			System.out.println("Solving from: ");
-			String visual = originalSudoku.getPrettyString(new DebugFormatter());
-			System.out.println(visual);
-
-			System.out.println();
-			System.out.println("The following steps were taken:");
-			System.out.println();
-
-			int stepInd = 0;
-			List<StrategyResult> log = evalData.getLog();
-			for (StrategyResult result : log) {
-				System.out.println(stepInd + ":\t" + result.getSource() + " -> " + result.toString() + " (index=" + result.index + ", value=" + result.value + ")");
-				stepInd++;
-			}
-			System.out.println("^ This step failed because of: ");
-			logAsIssue(originalSudoku);
+			publishFailure(originalSudoku, evalData, recentSteps, e);
 
 			throw e;
 		}
 		
-		return evalData;
+		return new SolveRun(evalData, outcome);
 	}
 
-	private void logAsIssue(Sudoku sudoku) {
-		final String ISSUE_FILE = "KnownIssues.sdm";
-		try {
-			FileWriter outStream = new FileWriter(ISSUE_FILE, true);
-			outStream.write(sdmConverter.toString(sudoku) + "\n");
-			outStream.close();
+	/**Check the budgets and cancellation of a grade.
+	 *
+	 * @return	The reason to stop, or Outcome.GRADED to keep going.
+	 */
+	private static BoundedGrade.Outcome checkLimits(GradeLimits limits, DifficultyTracker tracker, long startTime) {
+		if (limits.isCancelled()) {
+			return BoundedGrade.Outcome.CANCELLED;
+		}
+		if (tracker.getStepCount() >= limits.getMaxSteps()) {
+			return BoundedGrade.Outcome.BUDGET_EXHAUSTED;
+		}
+		if ((limits.getTimeBudgetNanos() != Long.MAX_VALUE) && (System.nanoTime() - startTime > limits.getTimeBudgetNanos())) {
+			return BoundedGrade.Outcome.BUDGET_EXHAUSTED;
+		}
+
+		return BoundedGrade.Outcome.GRADED;
+	}
+
+	/**An annotated sudoku after solving, and how the solve ended.*/
+	private static class SolveRun {
+		final AnnotatedSudoku evalData;
+		final BoundedGrade.Outcome outcome;
+
+		SolveRun(AnnotatedSudoku _evalData, BoundedGrade.Outcome _outcome) {
+			evalData = _evalData;
+			outcome = _outcome;
 		}
-		catch (IOException e) { System.err.println("Failed to log to " + ISSUE_FILE); }
+	}
+
+	private void publishProgress(String message) {
+		eventSink.publish(new SudokuEvent(EventLevel.INFO, EventType.GRADE_PROGRESS, message));
+	}
+
+	/**Publish a failed solve with the board it started from, the candidates it ended with, and the last steps taken.*/
+	private void publishFailure(Sudoku originalSudoku, AnnotatedSudoku evalData, StepRingBuffer recentSteps, AssertionError cause) {
+		List<String> details = new ArrayList<>();
+		details.add("Failed in state: " + SDM_CONVERTER.toString(evalData.getSudoku()));
+		details.add("The following steps were taken:");
+
+		int stepInd = recentSteps.getFirstKeptIndex();
+		if (stepInd > 0) {
+			details.add("(" + stepInd + " earlier steps not shown)");
+		}
+		for (StrategyResult result : recentSteps.getSteps()) {
+			details.add(stepInd + ":\t" + result.getSource() + " -> " + result.toString() + " (index=" + result.index + ", value=" + result.value + ")");
+			stepInd++;
+		}
+		details.add("^ This step failed because of: " + cause.getMessage());
+
+		eventSink.publish(new SudokuEvent(EventLevel.ERROR, EventType.SOLVER_FAILURE, "Sudoku Solver has failed!", originalSudoku, evalData.getCandidatesSnapshot(), details));
 	}
 }
@@ -0,0 +1,102 @@
+package shared.evaluation.strategies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.AnnotatedSudokuView;
+import shared.evaluation.Difficulty;
+import shared.evaluation.ISudokuMaskView;
+import shared.evaluation.ResultReason;
+import shared.evaluation.StrategyResult;
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+/**Base for wing strategies, which combine a few cells with few candidates to remove a candidate from every cell that sees all of them.
+ * Wings are built from the bivalue cells the view keeps track of, so the board is not rescanned for every pivot.
+ */
+public abstract class AWingStrategy extends ASudokuStrategy {
+	/**Look for wings, and add their removals to a list.
+	 *
+	 * @param sudokuEvalView	The sudoku to look at.
+	 * @param tracker	Removals already found by earlier wings in the same pass.
+	 * @param results	Target list that found results are added to.
+	 */
+	protected abstract void findWings(ISudokuMaskView sudokuEvalView, RemovalTracker tracker, List<StrategyResult> results);
+
+	@Override
+	public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
+		List<StrategyResult> results = new ArrayList<>();
+		findWings(sudokuEvalView, new RemovalTracker(), results);
+
+		return results;
+	}
+
+	@Override
+	public Difficulty getDifficulty() { return Difficulty.EXPERT; }
+
+	/**Get the cells that see every given cell, not including the given cells themselves.*/
+	protected static SudokuSelection commonPeers(int... indices) {
+		SudokuSelection result = SudokuHouses.peers(indices[0]);
+		for (int i = 1; i < indices.length; i++) {
+			result = result.getIntersectionWith(SudokuHouses.peers(indices[i]));
+		}
+
+		return result;
+	}
+
+	/**Note the current candidates of the cells that make up a wing.*/
+	protected static ResultReason makeReason(ISudokuMaskView sudokuEvalView, int... indices) {
+		int[] masks = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			masks[i] = sudokuEvalView.getCandidateMask(indices[i]);
+		}
+
+		return new ResultReason(indices, masks);
+	}
+
+	/**Remove a candidate from every cell in a selection that has it, unless an earlier wing already did.
+	 *
+	 * @param targets	Cells to remove the candidate from.
+	 * @param candidate	Candidate to remove.
+	 * @param wingCells	Cells that make up the wing, noted in the reason.
+	 */
+	protected void removeFrom(SudokuSelection targets, int candidate, ISudokuMaskView sudokuEvalView, RemovalTracker tracker,
+			List<StrategyResult> results, int... wingCells) {
+		int candidateBit = SudokuCandidates.candidateBit(candidate);
+		ResultReason reasoning = null;
+
+		PrimitiveIterator.OfInt indices = targets.iterator();
+		while (indices.hasNext()) {
+			int index = indices.nextInt();
+			if (((sudokuEvalView.getCandidateMask(index) & candidateBit) == 0) || !tracker.add(index, candidateBit)) {
+				continue;
+			}
+
+			if (reasoning == null) {
+				reasoning = makeReason(sudokuEvalView, wingCells);
+			}
+			results.add(makeRemovalResult(index, candidate, reasoning));
+		}
+	}
+
+	/**The candidates already removed from every index during a single pass.*/
+	protected static final class RemovalTracker {
+		private final int[] removed = new int[81];
+
+		/**Mark a removal.
+		 *
+		 * @return	True if it was not marked before.
+		 */
+		boolean add(int index, int candidateBit) {
+			if ((removed[index] & candidateBit) != 0) {
+				return false;
+			}
+
+			removed[index] |= candidateBit;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package shared.evaluation.strategies;
+
+import java.util.List;
+
+import shared.evaluation.StrategyResult;
+import shared.evaluation.AUnitSudokuStrategy;
+import shared.evaluation.Difficulty;
+import shared.evaluation.ResultReason;
+import shared.evaluation.ISudokuMaskView;
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+import shared.utility.RuntimeAssert;
+
+/**Finds basic fish of a single size: X-Wings (2), Swordfish (3) or Jellyfish (4).
+ * If a candidate only fits in N columns across N rows (the base), one of those rows has it in each of those columns (the cover),
+ * so it can be removed from the cover columns in every other row. The same goes with rows and columns swapped.
+ */
+public class FishStrategy extends AUnitSudokuStrategy {
+	//Every candidate is its own unit, and can be anywhere on the board
+	private static final String[] NAMES = {"X-Wing", "Swordfish", "Jellyfish"};
+
+	private final int size;
+
+	/**
+	 * @param _size	Amount of base lines, from 2 to 4.
+	 */
+	public FishStrategy(int _size) {
+		RuntimeAssert.inRange(_size, 2, 5);
+
+		size = _size;
+	}
+
+	@Override
+	public int getUnitCount() { return 9; }
+
+	@Override
+	public SudokuSelection getUnitDependencies(int unit) {
+		return SudokuHouses.all();
+	}
+
+	@Override
+	public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+		int candidate = unit + 1;
+
+		int[] rowPositions = new int[9];
+		int[] columnPositions = new int[9];
+		int unsolvedRows = 0;
+		for (int line = 0; line < 9; line++) {
+			rowPositions[line] = sudokuEvalView.getPositionMask(SudokuHouses.FIRST_ROW + line, candidate);
+			columnPositions[line] = sudokuEvalView.getPositionMask(SudokuHouses.FIRST_COLUMN + line, candidate);
+
+			if (rowPositions[line] != 0) {
+				unsolvedRows++;
+			}
+		}
+
+		//A fish as large as the amount of unsolved lines covers the whole board, which removes nothing
+		if (size >= unsolvedRows) {
+			return;
+		}
+
+		//Removals already reported, as a position mask per row
+		int[] removed = new int[9];
+		search(candidate, rowPositions, columnPositions, false, removed, 0, 0, 0, 0, results);
+		search(candidate, columnPositions, rowPositions, true, removed, 0, 0, 0, 0, results);
+	}
+
+	/**Pick base lines in ascending order until there are size of them, then check that they fit in exactly size cover lines.
+	 *
+	 * @param candidate	Candidate to look for.
+	 * @param basePositions	Positions of the candidate in every base line, where bit n stands for the n'th cover line.
+	 * @param coverPositions	Positions of the candidate in every cover line, where bit n stands for the n'th base line.
+	 * @param columnBase	If true, the base lines are columns, otherwise they are rows.
+	 */
+	private void search(int candidate, int[] basePositions, int[] coverPositions, boolean columnBase, int[] removed,
+			int start, int depth, int baseLines, int coverLines, List<StrategyResult> results) {
+		if (depth == size) {
+			if (Integer.bitCount(coverLines) == size) {
+				eliminate(candidate, basePositions, coverPositions, columnBase, removed, baseLines, coverLines, results);
+			}
+			return;
+		}
+
+		for (int line = start; line < 9; line++) {
+			int count = Integer.bitCount(basePositions[line]);
+			//Lines with a single position are hidden singles, not part of a fish
+			if ((count < 2) || (count > size)) {
+				continue;
+			}
+
+			int covered = coverLines | basePositions[line];
+			if (Integer.bitCount(covered) <= size) {
+				search(candidate, basePositions, coverPositions, columnBase, removed, line + 1, depth + 1, baseLines | (1 << line), covered, results);
+			}
+		}
+	}
+
+	/**Remove the candidate from the cover lines, outside of the base lines.*/
+	private void eliminate(int candidate, int[] basePositions, int[] coverPositions, boolean columnBase, int[] removed,
+			int baseLines, int coverLines, List<StrategyResult> results) {
+		ResultReason reasoning = null;
+
+		for (int cover = 0; cover < 9; cover++) {
+			if ((coverLines & (1 << cover)) == 0) {
+				continue;
+			}
+
+			int targets = coverPositions[cover] & ~baseLines;
+			while (targets != 0) {
+				int other = Integer.numberOfTrailingZeros(targets);
+				targets &= targets - 1;
+
+				int row = columnBase ? cover : other;
+				int column = columnBase ? other : cover;
+				if ((removed[row] & (1 << column)) != 0) {
+					continue;
+				}
+				removed[row] |= 1 << column;
+
+				if (reasoning == null) {
+					reasoning = makeReason(candidate, basePositions, columnBase, baseLines);
+				}
+				results.add(makeRemovalResult(row * 9 + column, candidate, reasoning));
+			}
+		}
+	}
+
+	/**Note the candidate in every cell of the base lines that has it.*/
+	private ResultReason makeReason(int candidate, int[] basePositions, boolean columnBase, int baseLines) {
+		int cellCount = 0;
+		for (int line = 0; line < 9; line++) {
+			if ((baseLines & (1 << line)) != 0) {
+				cellCount += Integer.bitCount(basePositions[line]);
+			}
+		}
+
+		int[] indices = new int[cellCount];
+		int cell = 0;
+		for (int line = 0; line < 9; line++) {
+			if ((baseLines & (1 << line)) == 0) {
+				continue;
+			}
+
+			int positions = basePositions[line];
+			while (positions != 0) {
+				int position = Integer.numberOfTrailingZeros(positions);
+				positions &= positions - 1;
+
+				indices[cell++] = columnBase ? position * 9 + line : line * 9 + position;
+			}
+		}
+
+		return new ResultReason(indices, SudokuCandidates.candidateBit(candidate));
+	}
+
+	@Override
+	public Difficulty getDifficulty() {
+		return (size == 2) ? Difficulty.HARD : Difficulty.EXPERT;
+	}
+
+	@Override
+	public String toString() { return NAMES[size - 2] + " strategy"; }
+}
@@ -0,0 +1,107 @@
+package shared.evaluation.strategies;
+
+import java.util.List;
+
+import shared.evaluation.StrategyResult;
+import shared.evaluation.AUnitSudokuStrategy;
+import shared.evaluation.Difficulty;
+import shared.evaluation.ResultReason;
+import shared.evaluation.ISudokuMaskView;
+import shared.model.SudokuCandidates;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+/**Finds candidates confined to the intersection of a square and a line.
+ * If a candidate of a square only fits in one of its lines, it can be removed from the rest of that line (pointing).
+ * If a candidate of a line only fits in one square, it can be removed from the rest of that square (claiming).
+ */
+public class IntersectionRemovalStrategy extends AUnitSudokuStrategy {
+	//Every square has 6 units: its 3 rows, then its 3 columns. Unit = square * 6 + line
+	private static final SudokuSelection[] DEPENDENCIES = new SudokuSelection[54];
+	/**Positions in a row that belong to its n'th square, which are also the positions of a square that belong to its n'th row.*/
+	private static final int[] SEGMENTS = {0b000000111, 0b000111000, 0b111000000};
+	/**Positions of a square that belong to its n'th column.*/
+	private static final int[] SQUARE_COLUMNS = {0b001001001, 0b010010010, 0b100100100};
+
+	static {
+		for (int unit = 0; unit < 54; unit++) {
+			SudokuSelection dependencies = new SudokuSelection();
+			dependencies.addAll(SudokuHouses.square(unit / 6));
+			dependencies.addAll(SudokuHouses.house(lineHouse(unit)));
+
+			DEPENDENCIES[unit] = SudokuHouses.readOnlyCopy(dependencies);
+		}
+	}
+
+	@Override
+	public int getUnitCount() { return 54; }
+
+	@Override
+	public SudokuSelection getUnitDependencies(int unit) {
+		return DEPENDENCIES[unit];
+	}
+
+	@Override
+	public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+		int square = unit / 6;
+		int squareHouse = SudokuHouses.FIRST_SQUARE + square;
+		int lineHouse = lineHouse(unit);
+		boolean isRow = (unit % 6) < 3;
+
+		//Positions of the intersection, as seen from the square and from the line
+		int inSquare = isRow ? SEGMENTS[unit % 3] : SQUARE_COLUMNS[unit % 3];
+		int inLine = isRow ? SEGMENTS[square % 3] : SEGMENTS[square / 3];
+
+		for (int candidate = 1; candidate <= 9; candidate++) {
+			int squarePositions = sudokuEvalView.getPositionMask(squareHouse, candidate);
+			int linePositions = sudokuEvalView.getPositionMask(lineHouse, candidate);
+
+			if ((squarePositions != 0) && ((squarePositions & ~inSquare) == 0)) {
+				removeAt(lineHouse, linePositions & ~inLine, candidate, squareHouse, squarePositions, results);
+			}
+			else if ((linePositions != 0) && ((linePositions & ~inLine) == 0)) {
+				removeAt(squareHouse, squarePositions & ~inSquare, candidate, lineHouse, linePositions, results);
+			}
+		}
+	}
+
+	/**Remove a candidate from positions of a house, because of where it is confined to in another house.*/
+	private void removeAt(int house, int positions, int candidate, int confinedHouse, int confinedPositions, List<StrategyResult> results) {
+		if (positions == 0) {
+			return;
+		}
+
+		int[] confinedCells = SudokuHouses.cellsOf(confinedHouse);
+		int[] reasonIndices = new int[Integer.bitCount(confinedPositions)];
+		for (int i = 0; i < reasonIndices.length; i++) {
+			reasonIndices[i] = confinedCells[Integer.numberOfTrailingZeros(confinedPositions)];
+			confinedPositions &= confinedPositions - 1;
+		}
+		ResultReason reasoning = new ResultReason(reasonIndices, SudokuCandidates.candidateBit(candidate));
+
+		int[] cells = SudokuHouses.cellsOf(house);
+		while (positions != 0) {
+			results.add(makeRemovalResult(cells[Integer.numberOfTrailingZeros(positions)], candidate, reasoning));
+			positions &= positions - 1;
+		}
+	}
+
+	/**Get the house number of a unit's line.*/
+	private static int lineHouse(int unit) {
+		int square = unit / 6;
+		int line = unit % 6;
+
+		if (line < 3) {
+			return SudokuHouses.FIRST_ROW + (square / 3) * 3 + line;
+		}
+		else {
+			return SudokuHouses.FIRST_COLUMN + (square % 3) * 3 + (line - 3);
+		}
+	}
+
+	@Override
+	public Difficulty getDifficulty() { return Difficulty.MEDIUM; }
+
+	@Override
+	public String toString() { return "Intersection removal strategy"; }
+}
@@ -1,30 +1,34 @@
 package shared.evaluation.strategies;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import shared.evaluation.StrategyResult;
-import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.AUnitSudokuStrategy;
 import shared.evaluation.Difficulty;
 import shared.evaluation.ResultReason;
-import shared.evaluation.AnnotatedSudokuView;
+import shared.evaluation.ISudokuMaskView;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+public class LastInCellStrategy extends AUnitSudokuStrategy {
+	//Every cell is its own unit
 
-public class LastInCellStrategy extends ASudokuStrategy {
 	@Override
-	public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
-		List<StrategyResult> results = new ArrayList<>();
+	public int getUnitCount() { return 81; }
 
-		for (int i = 0; i < 81; i++) {
-			List<Integer> candidates = sudokuEvalView.getCandidates(i);
+	@Override
+	public SudokuSelection getUnitDependencies(int unit) {
+		return SudokuHouses.cell(unit);
+	}
 
-			if (candidates.size() == 1) {
-				ResultReason reasoning = new ResultReason();
-				reasoning.addNote(i, candidates.get(0));
-				results.add(makeSolutionResult(i, candidates.get(0), reasoning));
-			}
+	@Override
+	public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+		int candidateMask = sudokuEvalView.getCandidateMask(unit);
+		if (Integer.bitCount(candidateMask) == 1) {
+			int candidate = Integer.numberOfTrailingZeros(candidateMask) + 1;
+			ResultReason reasoning = new ResultReason(unit, candidate);
+			results.add(makeSolutionResult(unit, candidate, reasoning));
 		}
-
-		return results;
 	}
 
 	@Override
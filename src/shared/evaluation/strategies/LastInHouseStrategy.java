@@ -1,68 +1,60 @@
 package shared.evaluation.strategies;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import shared.evaluation.StrategyResult;
-import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.AUnitSudokuStrategy;
 import shared.evaluation.Difficulty;
 import shared.evaluation.ResultReason;
-import shared.evaluation.AnnotatedSudokuView;
+import shared.evaluation.ISudokuMaskView;
+import shared.model.SudokuHouses;
 import shared.model.SudokuSelection;
 
-public class LastInHouseStrategy extends ASudokuStrategy {
+public class LastInHouseStrategy extends AUnitSudokuStrategy {
+	//Units are squares 0-8, then rows 9-17, then columns 18-26
 
 	@Override
-	public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
-		List<StrategyResult> results = new ArrayList<>();
+	public int getUnitCount() { return 27; }
 
-		for (int square = 0; square < 9; square++) {
-			SudokuSelection selection = SudokuSelection.square(square);
-			processSelection(selection, sudokuEvalView, results);
+	@Override
+	public SudokuSelection getUnitDependencies(int unit) {
+		if (unit < 9) {
+			return SudokuHouses.square(unit);
 		}
-
-		for (int row = 0; row < 9; row++) {
-			SudokuSelection selection = SudokuSelection.row(row);
-			processSelection(selection, sudokuEvalView, results);
+		else if (unit < 18) {
+			return SudokuHouses.row(unit - 9);
 		}
-
-		for (int col = 0; col < 9; col++) {
-			SudokuSelection selection = SudokuSelection.column(col);
-			processSelection(selection, sudokuEvalView, results);
+		else {
+			return SudokuHouses.column(unit - 18);
 		}
-
-		return results;
 	}
 
-	private void processSelection(SudokuSelection selection, AnnotatedSudokuView dataSource, List<StrategyResult> target) {
-		int[] candidateAppearances = new int[9];
-		int[] candFirstAppearanceIndex = new int[9];
-
-		Arrays.fill(candidateAppearances, 0);
-		Arrays.fill(candFirstAppearanceIndex, -1);
-
-		//Collect how many times values appeared as cell candidates,
-		//and which index they first appeared in.
-		for (Integer index : selection) {
-			List<Integer> candidates = dataSource.getCandidates(index);
-			for (Integer candidate : candidates) {
-				candidateAppearances[candidate - 1] += 1;
-				if (candFirstAppearanceIndex[candidate - 1] == -1) {
-					candFirstAppearanceIndex[candidate - 1] = index;
-				}
+	@Override
+	public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+		int house = unitToHouse(unit);
+		int[] cells = SudokuHouses.cellsOf(house);
+
+		//Every candidate with only one position left in the house is solved there
+		for (int candidate = 1; candidate <= 9; candidate++) {
+			int positions = sudokuEvalView.getPositionMask(house, candidate);
+			if (Integer.bitCount(positions) == 1) {
+				int index = cells[Integer.numberOfTrailingZeros(positions)];
+				ResultReason reasoning = new ResultReason(index, candidate);
+
+				results.add(makeSolutionResult(index, candidate, reasoning));
 			}
 		}
+	}
 
-		//Go through all candidates that only appeared once,
-		//and make that one appearance the solution
-		for (int i = 0; i < 9; i++) {
-			if (candidateAppearances[i] == 1) {
-				ResultReason reasoning = new ResultReason();
-				reasoning.addNote(candFirstAppearanceIndex[i], i + 1);
-
-				target.add(makeSolutionResult(candFirstAppearanceIndex[i], i + 1, reasoning));
-			}
+	private int unitToHouse(int unit) {
+		if (unit < 9) {
+			return SudokuHouses.FIRST_SQUARE + unit;
+		}
+		else if (unit < 18) {
+			return SudokuHouses.FIRST_ROW + unit - 9;
+		}
+		else {
+			return SudokuHouses.FIRST_COLUMN + unit - 18;
 		}
 	}
 
@@ -1,38 +1,46 @@
 package shared.evaluation.strategies;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import shared.evaluation.StrategyResult;
-import shared.evaluation.ASudokuStrategy;
+import shared.evaluation.AUnitSudokuStrategy;
 import shared.evaluation.Difficulty;
 import shared.evaluation.ResultReason;
-import shared.evaluation.AnnotatedSudokuView;
+import shared.evaluation.ISudokuMaskView;
+import shared.model.SudokuHouses;
 import shared.model.SudokuSelection;
 
-public class LinearEliminationStrategy extends ASudokuStrategy {
+public class LinearEliminationStrategy extends AUnitSudokuStrategy {
+	//Every cell is its own unit, which depends on the cell and its peers
+
 	@Override
 	public Difficulty getDifficulty() { return Difficulty.EASY; }
 
 	@Override
-	public List<StrategyResult> apply(AnnotatedSudokuView sudokuEvalView) {
-		List<StrategyResult> results = new ArrayList<>();
-
-		for (int i = 0; i < 81; i++) {
-			if (sudokuEvalView.getValue(i) != 0) {
-				continue;
-			}
-			List<Integer> candidates = sudokuEvalView.getCandidates(i);
-			for (Integer candidate : candidates) {
-				SudokuSelection selection = SudokuSelection.affectedBy(i);
-				if (sudokuEvalView.getAppearanceCounts(selection)[candidate - 1] > 0) {
-					SudokuSelection specificSelection = sudokuEvalView.indicesOf(candidate, selection);
-					results.add(makeRemovalResult(i, candidate, new ResultReason(specificSelection)));
-				}
-			}
+	public int getUnitCount() { return 81; }
+
+	@Override
+	public SudokuSelection getUnitDependencies(int unit) {
+		return SudokuHouses.peersAndSelf(unit);
+	}
+
+	@Override
+	public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+		if (sudokuEvalView.getValue(unit) != 0) {
+			return;
 		}
 
-		return results;
+		//Candidates that are already placed in one of the cell's houses
+		int[] houses = SudokuHouses.housesOf(unit);
+		int seenMask = sudokuEvalView.getSolvedMask(houses[0]) | sudokuEvalView.getSolvedMask(houses[1]) | sudokuEvalView.getSolvedMask(houses[2]);
+		int removableMask = sudokuEvalView.getCandidateMask(unit) & seenMask;
+		while (removableMask != 0) {
+			int candidate = Integer.numberOfTrailingZeros(removableMask) + 1;
+			removableMask &= removableMask - 1;
+
+			SudokuSelection specificSelection = sudokuEvalView.indicesOf(candidate, SudokuHouses.peers(unit));
+			results.add(makeRemovalResult(unit, candidate, new ResultReason(specificSelection)));
+		}
 	}
 
 	@Override
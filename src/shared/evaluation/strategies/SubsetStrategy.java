@@ -0,0 +1,180 @@
+package shared.evaluation.strategies;
+
+import java.util.List;
+
+import shared.evaluation.StrategyResult;
+import shared.evaluation.AUnitSudokuStrategy;
+import shared.evaluation.Difficulty;
+import shared.evaluation.ResultReason;
+import shared.evaluation.ISudokuMaskView;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+import shared.utility.RuntimeAssert;
+
+/**Finds naked and hidden subsets inside single houses.
+ * A naked subset is N cells that together have only N candidates left, so those candidates can be removed from the rest of the house.
+ * A hidden subset is N candidates that together only fit in N cells, so every other candidate can be removed from those cells.
+ *
+ * Only candidates that are present are removed, and a removal found by several subsets of the same house is only reported once.
+ */
+public class SubsetStrategy extends AUnitSudokuStrategy {
+	//Every house is its own unit, numbered as in SudokuHouses
+	private final int minSize;
+	private final int maxSize;
+	private final Difficulty difficulty;
+
+	/**Construct a strategy for pairs, triples and quads.*/
+	public SubsetStrategy() {
+		this(2, 4, Difficulty.HARD);
+	}
+
+	/**
+	 * @param _minSize	Smallest subset size to look for, atleast 2.
+	 * @param _maxSize	Largest subset size to look for, atmost 4.
+	 * @param _difficulty	Difficulty of the subsets in this size range.
+	 */
+	public SubsetStrategy(int _minSize, int _maxSize, Difficulty _difficulty) {
+		RuntimeAssert.inRange(_minSize, 2, 5);
+		RuntimeAssert.inRange(_maxSize, _minSize, 5);
+		RuntimeAssert.notNull(_difficulty);
+
+		minSize = _minSize;
+		maxSize = _maxSize;
+		difficulty = _difficulty;
+	}
+
+	@Override
+	public int getUnitCount() { return SudokuHouses.HOUSE_COUNT; }
+
+	@Override
+	public SudokuSelection getUnitDependencies(int unit) {
+		return SudokuHouses.house(unit);
+	}
+
+	@Override
+	public void applyToUnit(int unit, ISudokuMaskView sudokuEvalView, List<StrategyResult> results) {
+		HouseScan scan = new HouseScan(unit, sudokuEvalView, results);
+
+		//A subset as large as the amount of empty cells is the whole house, which removes nothing
+		for (int size = minSize; (size <= maxSize) && (size < scan.emptyCount); size++) {
+			scan.search(scan.cellMasks, false, size, 0, 0, 0, 0);
+			scan.search(scan.digitPositions, true, size, 0, 0, 0, 0);
+		}
+	}
+
+	@Override
+	public Difficulty getDifficulty() { return difficulty; }
+
+	@Override
+	public String toString() {
+		if (minSize == maxSize) {
+			return "Subset strategy (size " + minSize + ")";
+		}
+		return "Subset strategy (sizes " + minSize + "-" + maxSize + ")";
+	}
+
+	/**Search state for a single house. Items are either cells with their candidate masks (naked),
+	 * or digits with their position masks (hidden), and a subset is a set of items whose masks cover as many bits as there are items.
+	 */
+	private final class HouseScan {
+		private final int[] cells;
+		/**Candidate mask of every position in the house.*/
+		private final int[] cellMasks = new int[9];
+		/**Position mask of every digit in the house.*/
+		private final int[] digitPositions = new int[9];
+		/**Candidates already removed from every position.*/
+		private final int[] removed = new int[9];
+		private final List<StrategyResult> results;
+		private int emptyCount = 0;
+
+		private HouseScan(int house, ISudokuMaskView sudokuEvalView, List<StrategyResult> _results) {
+			cells = SudokuHouses.cellsOf(house);
+			results = _results;
+
+			for (int i = 0; i < 9; i++) {
+				cellMasks[i] = sudokuEvalView.getCandidateMask(cells[i]);
+				digitPositions[i] = sudokuEvalView.getPositionMask(house, i + 1);
+
+				if (cellMasks[i] != 0) {
+					emptyCount++;
+				}
+			}
+		}
+
+		/**Pick items in ascending order until there are size of them, then check that they cover exactly size bits.*/
+		private void search(int[] items, boolean hidden, int size, int start, int depth, int chosenItems, int coveredBits) {
+			if (depth == size) {
+				if (Integer.bitCount(coveredBits) == size) {
+					if (hidden) {
+						eliminate(true, coveredBits, chosenItems);
+					}
+					else {
+						eliminate(false, chosenItems, coveredBits);
+					}
+				}
+				return;
+			}
+
+			for (int i = start; i < 9; i++) {
+				int count = Integer.bitCount(items[i]);
+				//Items with a single bit are singles, not part of a subset
+				if ((count < 2) || (count > size)) {
+					continue;
+				}
+
+				int covered = coveredBits | items[i];
+				if (Integer.bitCount(covered) <= size) {
+					search(items, hidden, size, i + 1, depth + 1, chosenItems | (1 << i), covered);
+				}
+			}
+		}
+
+		/**Turn a found subset into removals.
+		 *
+		 * @param hidden	If true, other candidates are removed from the subset's cells.
+		 * 					Otherwise the subset's candidates are removed from the rest of the house.
+		 * @param subsetPositions	Positions of the cells in the subset.
+		 * @param subsetDigits	Candidates of the subset.
+		 */
+		private void eliminate(boolean hidden, int subsetPositions, int subsetDigits) {
+			int affectedPositions = hidden ? subsetPositions : ~subsetPositions;
+			int removableDigits = hidden ? ~subsetDigits : subsetDigits;
+			ResultReason reasoning = null;
+
+			for (int p = 0; p < 9; p++) {
+				int mask = ((affectedPositions & (1 << p)) != 0) ? cellMasks[p] & removableDigits & ~removed[p] : 0;
+				if (mask == 0) {
+					continue;
+				}
+
+				if (reasoning == null) {
+					reasoning = makeReason(subsetPositions, subsetDigits);
+				}
+				removed[p] |= mask;
+
+				while (mask != 0) {
+					int candidate = Integer.numberOfTrailingZeros(mask) + 1;
+					mask &= mask - 1;
+
+					results.add(makeRemovalResult(cells[p], candidate, reasoning));
+				}
+			}
+		}
+
+		/**Note the candidates of the subset in each of its cells.*/
+		private ResultReason makeReason(int subsetPositions, int subsetDigits) {
+			int[] indices = new int[Integer.bitCount(subsetPositions)];
+			int[] masks = new int[indices.length];
+
+			int i = 0;
+			for (int p = 0; p < 9; p++) {
+				if ((subsetPositions & (1 << p)) != 0) {
+					indices[i] = cells[p];
+					masks[i++] = cellMasks[p] & subsetDigits;
+				}
+			}
+
+			return new ResultReason(indices, masks);
+		}
+	}
+}
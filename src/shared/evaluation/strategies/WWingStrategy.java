@@ -0,0 +1,72 @@
+package shared.evaluation.strategies;
+
+import java.util.List;
+
+import shared.evaluation.ISudokuMaskView;
+import shared.evaluation.StrategyResult;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+/**Finds W-Wings: two bivalue cells XY that don't see each other, connected by a house where X only fits in two cells,
+ * one of which sees each bivalue cell. One of the bivalue cells has to be Y, so Y can be removed from every cell that sees both.
+ */
+public class WWingStrategy extends AWingStrategy {
+	@Override
+	protected void findWings(ISudokuMaskView sudokuEvalView, RemovalTracker tracker, List<StrategyResult> results) {
+		int[] bivalueCells = sudokuEvalView.getBivalueCells().indices().toArray();
+
+		for (int a = 0; a < bivalueCells.length; a++) {
+			int first = bivalueCells[a];
+			int mask = sudokuEvalView.getCandidateMask(first);
+			SudokuSelection firstPeers = SudokuHouses.peers(first);
+
+			for (int b = a + 1; b < bivalueCells.length; b++) {
+				int second = bivalueCells[b];
+				if ((sudokuEvalView.getCandidateMask(second) != mask) || firstPeers.contains(second)) {
+					continue;
+				}
+
+				SudokuSelection targets = commonPeers(first, second);
+				if (targets.isEmpty()) {
+					continue;
+				}
+
+				//Either candidate can form the link, and the other one is removed
+				int linkCandidate = Integer.numberOfTrailingZeros(mask) + 1;
+				int otherCandidate = 32 - Integer.numberOfLeadingZeros(mask);
+				findLink(first, second, linkCandidate, otherCandidate, targets, sudokuEvalView, tracker, results);
+				findLink(first, second, otherCandidate, linkCandidate, targets, sudokuEvalView, tracker, results);
+			}
+		}
+	}
+
+	/**Look for a house where the link candidate only fits in two cells, that each see a different bivalue cell.*/
+	private void findLink(int first, int second, int linkCandidate, int removedCandidate, SudokuSelection targets,
+			ISudokuMaskView sudokuEvalView, RemovalTracker tracker, List<StrategyResult> results) {
+		SudokuSelection firstPeers = SudokuHouses.peers(first);
+		SudokuSelection secondPeers = SudokuHouses.peers(second);
+
+		for (int house = 0; house < SudokuHouses.HOUSE_COUNT; house++) {
+			int positions = sudokuEvalView.getPositionMask(house, linkCandidate);
+			if (Integer.bitCount(positions) != 2) {
+				continue;
+			}
+
+			int[] cells = SudokuHouses.cellsOf(house);
+			int low = cells[Integer.numberOfTrailingZeros(positions)];
+			int high = cells[31 - Integer.numberOfLeadingZeros(positions)];
+			if ((low == first) || (low == second) || (high == first) || (high == second)) {
+				continue;
+			}
+
+			boolean linked = (firstPeers.contains(low) && secondPeers.contains(high)) || (firstPeers.contains(high) && secondPeers.contains(low));
+			if (linked) {
+				removeFrom(targets, removedCandidate, sudokuEvalView, tracker, results, first, second, low, high);
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString() { return "W-Wing strategy"; }
+}
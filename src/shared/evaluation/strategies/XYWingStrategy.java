@@ -0,0 +1,50 @@
+package shared.evaluation.strategies;
+
+import java.util.List;
+
+import shared.evaluation.ISudokuMaskView;
+import shared.evaluation.StrategyResult;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+/**Finds XY-Wings: a bivalue pivot XY that sees two bivalue pincers XZ and YZ.
+ * Whichever value the pivot takes, one of the pincers becomes Z, so Z can be removed from every cell that sees both pincers.
+ */
+public class XYWingStrategy extends AWingStrategy {
+	@Override
+	protected void findWings(ISudokuMaskView sudokuEvalView, RemovalTracker tracker, List<StrategyResult> results) {
+		SudokuSelection bivalueCells = sudokuEvalView.getBivalueCells();
+
+		for (int pivot : bivalueCells.indices().toArray()) {
+			int pivotMask = sudokuEvalView.getCandidateMask(pivot);
+			int[] pincers = SudokuHouses.peers(pivot).getIntersectionWith(bivalueCells).indices().toArray();
+
+			for (int a = 0; a < pincers.length; a++) {
+				int firstMask = sudokuEvalView.getCandidateMask(pincers[a]);
+				//A pincer shares exactly one candidate with the pivot
+				if (Integer.bitCount(firstMask & pivotMask) != 1) {
+					continue;
+				}
+
+				for (int b = a + 1; b < pincers.length; b++) {
+					int secondMask = sudokuEvalView.getCandidateMask(pincers[b]);
+					if ((Integer.bitCount(secondMask & pivotMask) != 1) || ((firstMask & secondMask & pivotMask) != 0)) {
+						continue;
+					}
+
+					//Both pincers need the same candidate outside the pivot
+					int sharedMask = firstMask & ~pivotMask;
+					if (sharedMask != (secondMask & ~pivotMask)) {
+						continue;
+					}
+
+					int candidate = Integer.numberOfTrailingZeros(sharedMask) + 1;
+					removeFrom(commonPeers(pincers[a], pincers[b]), candidate, sudokuEvalView, tracker, results, pivot, pincers[a], pincers[b]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() { return "XY-Wing strategy"; }
+}
@@ -0,0 +1,50 @@
+package shared.evaluation.strategies;
+
+import java.util.List;
+
+import shared.evaluation.ISudokuMaskView;
+import shared.evaluation.StrategyResult;
+import shared.model.SudokuHouses;
+import shared.model.SudokuSelection;
+
+/**Finds XYZ-Wings: a pivot with candidates XYZ that sees two bivalue pincers XZ and YZ.
+ * Whichever value the pivot takes, one of the three cells becomes Z, so Z can be removed from every cell that sees all three.
+ */
+public class XYZWingStrategy extends AWingStrategy {
+	@Override
+	protected void findWings(ISudokuMaskView sudokuEvalView, RemovalTracker tracker, List<StrategyResult> results) {
+		SudokuSelection bivalueCells = sudokuEvalView.getBivalueCells();
+		if (bivalueCells.size() < 2) {
+			return;
+		}
+
+		for (int pivot = 0; pivot < 81; pivot++) {
+			int pivotMask = sudokuEvalView.getCandidateMask(pivot);
+			if (Integer.bitCount(pivotMask) != 3) {
+				continue;
+			}
+
+			int[] pincers = SudokuHouses.peers(pivot).getIntersectionWith(bivalueCells).indices().toArray();
+			for (int a = 0; a < pincers.length; a++) {
+				int firstMask = sudokuEvalView.getCandidateMask(pincers[a]);
+				if ((firstMask & ~pivotMask) != 0) {
+					continue;
+				}
+
+				for (int b = a + 1; b < pincers.length; b++) {
+					int secondMask = sudokuEvalView.getCandidateMask(pincers[b]);
+					//Different pincers made of pivot candidates, which share one of them
+					if (((secondMask & ~pivotMask) != 0) || (firstMask == secondMask)) {
+						continue;
+					}
+
+					int candidate = Integer.numberOfTrailingZeros(firstMask & secondMask) + 1;
+					removeFrom(commonPeers(pivot, pincers[a], pincers[b]), candidate, sudokuEvalView, tracker, results, pivot, pincers[a], pincers[b]);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() { return "XYZ-Wing strategy"; }
+}
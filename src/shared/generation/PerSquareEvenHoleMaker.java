@@ -2,13 +2,14 @@ package shared.generation;
 
 import java.util.Random;
 
+import shared.model.SudokuHouses;
 import shared.model.SudokuSelection;
 
 public class PerSquareEvenHoleMaker extends ASudokuHoleMaker {
 	private int nextSquare = 0;
 	@Override
 	protected int getNextHole(SudokuSelection holeCandidates, Random randomizer) {
-		holeCandidates = holeCandidates.getIntersectionWith(SudokuSelection.square(nextSquare));
+		holeCandidates = holeCandidates.getIntersectionWith(SudokuHouses.square(nextSquare));
 
 		nextSquare += 1;
 		if (nextSquare >= 9) {
@@ -1,11 +1,18 @@
 package shared.generation;
 
-import java.util.ArrayList;
+import java.util.PrimitiveIterator;
 import java.util.Random;
 import java.util.Stack;
 
 import shared.evaluation.Difficulty;
+import shared.evaluation.GradeLimits;
+import shared.evaluation.ISudokuSolver;
 import shared.evaluation.SudokuSolver;
+import shared.logging.AsyncEventSink;
+import shared.logging.EventLevel;
+import shared.logging.EventType;
+import shared.logging.ISudokuEventSink;
+import shared.logging.SudokuEvent;
 import shared.model.Sudoku;
 import shared.model.SudokuSelection;
 import shared.utility.RuntimeAssert;
@@ -15,15 +22,39 @@ public final class SudokuGenerator {
 	private IFilledSudokuGenerator fillGenerator;
 	private ASudokuHoleMaker holeMaker;
 	private SudokuSolver grader;
+	private ISudokuSolver uniquenessChecker;
+	private ISudokuEventSink eventSink = AsyncEventSink.shared();
 	
 	public SudokuGenerator(IFilledSudokuGenerator _fillGenerator, ASudokuHoleMaker _holeMaker, SudokuSolver _grader) {
+		this(_fillGenerator, _holeMaker, _grader, _grader);
+	}
+
+	/**Construct a generator that uses a specific engine to check if new holes keep the solution unique.
+	 *
+	 * @param _fillGenerator	Generator for the filled board holes are made in.
+	 * @param _holeMaker		Picks the holes.
+	 * @param _grader			Grades the difficulty after every hole.
+	 * @param _uniquenessChecker	Engine that rejects holes leading to several solutions before grading.
+	 */
+	public SudokuGenerator(IFilledSudokuGenerator _fillGenerator, ASudokuHoleMaker _holeMaker, SudokuSolver _grader, ISudokuSolver _uniquenessChecker) {
 		defaultRandomizer = new Random(System.currentTimeMillis());
 		
 		fillGenerator = _fillGenerator;
 		holeMaker = _holeMaker;
 		grader = _grader;
+		uniquenessChecker = _uniquenessChecker;
 	}
 	
+	/**Set where generated sudokus are reported.
+	 *
+	 * @param _eventSink	The sink to use. Defaults to AsyncEventSink.shared().
+	 */
+	public void setEventSink(ISudokuEventSink _eventSink) {
+		RuntimeAssert.notNull(_eventSink);
+
+		eventSink = _eventSink;
+	}
+
 	public Sudoku generate(Difficulty desiredDifficulty) {
 		return generate(desiredDifficulty, defaultRandomizer);
 	}
@@ -33,26 +64,33 @@ public final class SudokuGenerator {
 		RuntimeAssert.notNull(fillGenerator);
 		RuntimeAssert.notNull(holeMaker);
 		RuntimeAssert.notNull(grader);
+		RuntimeAssert.notNull(uniquenessChecker);
 		
 		Sudoku sudoku = fillGenerator.generate(randomizer);
 		SudokuSelection remainingFilled = SudokuSelection.all();
 
+		//Anything harder than requested is undone anyway, so grading can stop there
+		GradeLimits limits = GradeLimits.ceiling(desiredDifficulty);
+
 		int useableHoles = 1;
 		while (useableHoles > 0) {
 			SudokuSelection nextHoles = holeMaker.getNextHoles(remainingFilled, randomizer);
 			useableHoles = 0;
 			
-			for (int holePos : nextHoles) {
+			PrimitiveIterator.OfInt holeIterator = nextHoles.iterator();
+			while (holeIterator.hasNext()) {
+				int holePos = holeIterator.nextInt();
+
 				//Store in case the new hole needs to be undone
 				int removedValue = sudoku.get(holePos);
 				sudoku.set(holePos, 0);
 				remainingFilled.remove(holePos);
 				
 				if (remainingFilled.size() < 50) {
-					//Evaluate the difficulty, and check if it's unique.
-					Difficulty grade = grader.grade(sudoku);
+					//Check if it's unique, and evaluate the difficulty.
+					boolean acceptable = uniquenessChecker.hasUniqueSolution(sudoku) && grader.grade(sudoku, limits).isGraded();
 					
-					if ((grade.compareTo(desiredDifficulty) > 0) || (grade == Difficulty.UNGRADED)) {
+					if (!acceptable) {
 						//If this latest hole resulted in undesireable results, undo it and continue.
 						sudoku.set(holePos, removedValue);
 						remainingFilled.add(holePos);
@@ -64,7 +102,10 @@ public final class SudokuGenerator {
 			}
 		}
 		
-		System.out.printf("Generated a difficulty %s sudoku (Difficulty: %s was requested)\n", grader.grade(sudoku, false), desiredDifficulty.toString());
+		if (eventSink.isEnabled(EventLevel.INFO)) {
+			String message = String.format("Generated a difficulty %s sudoku (Difficulty: %s was requested)", grader.grade(sudoku, false), desiredDifficulty.toString());
+			eventSink.publish(new SudokuEvent(EventLevel.INFO, EventType.GENERATED, message, sudoku, null, null));
+		}
 		return sudoku;
 	}
 }
@@ -6,11 +6,18 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
+import shared.logging.AsyncEventSink;
+import shared.logging.EventLevel;
+import shared.logging.EventType;
+import shared.logging.ISudokuEventSink;
+import shared.logging.SudokuEvent;
 import shared.model.Sudoku;
-import shared.model.SudokuSelection;
+import shared.model.SudokuHouses;
+import shared.utility.RuntimeAssert;
 
 public class WaveCollapseGenerator implements IFilledSudokuGenerator {
 	private QuantumNode[] nodes = new QuantumNode[81];
+	private ISudokuEventSink eventSink = AsyncEventSink.shared();
 
 	public WaveCollapseGenerator() {
 		//Create the nodes
@@ -20,12 +27,22 @@ public class WaveCollapseGenerator implements IFilledSudokuGenerator {
 
 		//Entangle the nodes
 		for (int i = 0; i < 81; i++) {
-			for (Integer index : SudokuSelection.affectedBy(i)) {
+			for (int index : SudokuHouses.peerIndices(i)) {
 				nodes[i].entangle(nodes[index]);
 			}
 		}
 	}
 
+	/**Set where attempts and their failures are reported.
+	 *
+	 * @param _eventSink	The sink to use. Defaults to AsyncEventSink.shared().
+	 */
+	public void setEventSink(ISudokuEventSink _eventSink) {
+		RuntimeAssert.notNull(_eventSink);
+
+		eventSink = _eventSink;
+	}
+
 	@Override
 	public Sudoku generate(Random randomizer) {
 		boolean success = false;
@@ -34,7 +51,9 @@ public class WaveCollapseGenerator implements IFilledSudokuGenerator {
 
 		//Keep trying until there is success, or the limit is reached
 		while (!success && (attempt++ < limit)) {
-			System.out.print("Wave Function Collapse generator: attempt #" + attempt + "...");
+			if (eventSink.isEnabled(EventLevel.DEBUG)) {
+				eventSink.publish(new SudokuEvent(EventLevel.DEBUG, EventType.GENERATION_ATTEMPT, "Wave Function Collapse generator: attempt #" + attempt + "..."));
+			}
 			try {
 				//Clear any leftovers from previous run
 				for (int i = 0; i < 81; i++) {
@@ -57,7 +76,6 @@ public class WaveCollapseGenerator implements IFilledSudokuGenerator {
 				assignFromNodes(verifier);
 
 				if (verifier.isLegalBoardState()) {
-					System.out.println("\tSUCCEEDED");
 					success = true;
 				}
 				else {
@@ -66,9 +84,7 @@ public class WaveCollapseGenerator implements IFilledSudokuGenerator {
 				}
 			}
 			catch (IllegalStateException e) {
-				System.out.println("\tFAILED");
-				System.out.println(e.getMessage());
-				System.out.println();
+				eventSink.publish(new SudokuEvent(EventLevel.WARNING, EventType.GENERATION_ATTEMPT, "Wave Function Collapse generator: attempt #" + attempt + " FAILED: " + e.getMessage()));
 			}
 		}
 		
@@ -10,10 +10,7 @@ public abstract class ASymmetryModifier implements ISudokuModifier {
 	public void apply(SudokuSelection selection) {
 		SudokuSelection addedHoles = new SudokuSelection();
 
-		for (Integer index : selection) {
-			int mirrorIndex = getMirrorIndex(index);
-			addedHoles.add(mirrorIndex);
-		}
+		selection.forEachIndex(index -> addedHoles.add(getMirrorIndex(index)));
 
 		selection.addAll(addedHoles);
 	}
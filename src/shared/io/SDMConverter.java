@@ -1,5 +1,8 @@
 package shared.io;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import javafx.util.StringConverter;
 import shared.model.Sudoku;
 import shared.utility.RuntimeAssert;
@@ -35,12 +38,41 @@ public class SDMConverter extends StringConverter<Sudoku> {
 
 	@Override
 	public String toString(Sudoku sudoku) {
-		String string = "";
+		StringBuilder string = new StringBuilder(81);
+
+		try {
+			appendTo(string, sudoku);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("StringBuilder failed to append!", e);
+		}
+
+		return string.toString();
+	}
+
+	/**Write the .sdm line for a sudoku directly into a target, without a line break.
+	 *
+	 * @param out	Target to write to, such as a StringBuilder, CharBuffer or Writer.
+	 * @param sudoku	The sudoku to encode.
+	 * @throws IOException	thrown if the target fails to accept the text.
+	 */
+	public void appendTo(Appendable out, Sudoku sudoku) throws IOException {
 		for (int i = 0; i < 81; i++) {
-			string += Integer.toString(sudoku.get(i));
+			out.append((char)('0' + sudoku.get(i)));
 		}
+	}
 
-		return string;
+	/**Write many sudokus as an .sdm file, one sudoku per line.
+	 *
+	 * @param out	Target to write to, such as a Writer.
+	 * @param sudokus	The sudokus to encode, in order.
+	 * @throws IOException	thrown if the target fails to accept the text.
+	 */
+	public void appendAll(Appendable out, Iterable<Sudoku> sudokus) throws IOException {
+		for (Sudoku sudoku : sudokus) {
+			appendTo(out, sudoku);
+			out.append('\n');
+		}
 	}
 
 }
@@ -1,8 +1,10 @@
 package shared.io;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 import javafx.util.StringConverter;
+import shared.model.ASudokuFormatter;
 import shared.model.Sudoku;
 
 public class SudokuIO {
@@ -14,4 +16,21 @@ public class SudokuIO {
 	public static Sudoku read(Path path, StringConverter<Sudoku> converter) {
 		throw new UnsupportedOperationException("SudokuIO.read has not been implemented!");
 	}
+
+	/**Render many sudokus as pretty strings into a target, separated by blank lines.
+	 * The formatter's value texts are made once for the whole batch, and every board is written straight into the target.
+	 *
+	 * @param out	Target to write to, such as a Writer.
+	 * @param sudokus	The sudokus to render, in order.
+	 * @param formatter	Formatter that decides how each value is displayed.
+	 * @throws IOException	thrown if the target fails to accept the text.
+	 */
+	public static void appendPrettyStrings(Appendable out, Iterable<Sudoku> sudokus, ASudokuFormatter formatter) throws IOException {
+		String[] valueTexts = formatter.getValueTexts();
+
+		for (Sudoku sudoku : sudokus) {
+			sudoku.appendPrettyString(out, valueTexts);
+			out.append("\n\n");
+		}
+	}
 }
@@ -0,0 +1,327 @@
+package shared.logging;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import shared.io.SDMConverter;
+import shared.model.CompactSudoku;
+import shared.model.DebugFormatter;
+import shared.model.Sudoku;
+import shared.model.SudokuCandidates;
+import shared.utility.RuntimeAssert;
+
+/**Event sink that writes on a background thread, so publishing never waits for console or file output.
+ * Queued events are handled in batches: events at or above the console level are written to the console,
+ * and the boards of SOLVER_FAILURE events are appended to the known issues file in SDM format.
+ * A board is only appended if the file doesn't contain it yet, including from earlier runs.
+ *
+ * If the queue is full, events below ERROR are dropped and counted, while errors wait for room as long as the writer thread runs.
+ * A failure to write one event is reported to System.err, and doesn't stop the writer.
+ */
+public class AsyncEventSink implements ISudokuEventSink, AutoCloseable {
+	public static final String DEFAULT_ISSUE_FILE = "KnownIssues.sdm";
+	private static final int QUEUE_CAPACITY = 4096;
+	private static final int BATCH_SIZE = 256;
+	/**How often waiting callers check that the writer thread is still running.*/
+	private static final long LIVENESS_CHECK_MILLIS = 50;
+	/**Queued to stop the writer thread.*/
+	private static final Object STOP = new Object();
+
+	private static AsyncEventSink sharedSink = null;
+
+	private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final Appendable console;
+	private final EventLevel consoleLevel;
+	private final Path issueFile;
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final Thread writerThread;
+	private volatile boolean closed = false;
+
+	//Only used by the writer thread
+	private final Set<CompactSudoku> knownIssues = new HashSet<>();
+	private final SDMConverter sdmConverter = new SDMConverter();
+	private final String[] valueTexts = new DebugFormatter().getValueTexts();
+	private Writer issueWriter = null;
+
+	/**
+	 * @param _console	Target for events at or above the console level, such as System.out.
+	 * @param _consoleLevel	Least severe level written to the console.
+	 * @param _issueFile	File that failing boards are appended to, or null to not keep them.
+	 */
+	public AsyncEventSink(Appendable _console, EventLevel _consoleLevel, Path _issueFile) {
+		RuntimeAssert.notNull(_console);
+		RuntimeAssert.notNull(_consoleLevel);
+
+		console = _console;
+		consoleLevel = _consoleLevel;
+		issueFile = _issueFile;
+
+		writerThread = new Thread(this::run, "Sudoku event writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**Get the sink used by default, which writes INFO and above to System.out and failures to KnownIssues.sdm.
+	 * It is created on first use, and flushed when the program exits.
+	 */
+	public static synchronized AsyncEventSink shared() {
+		if (sharedSink == null) {
+			sharedSink = new AsyncEventSink(System.out, EventLevel.INFO, Paths.get(DEFAULT_ISSUE_FILE));
+			Runtime.getRuntime().addShutdownHook(new Thread(sharedSink::close));
+		}
+
+		return sharedSink;
+	}
+
+	@Override
+	public boolean isEnabled(EventLevel level) {
+		return !closed && ((level.compareTo(consoleLevel) >= 0) || (level == EventLevel.ERROR));
+	}
+
+	@Override
+	public void publish(SudokuEvent event) {
+		RuntimeAssert.notNull(event);
+
+		if (closed || queue.offer(event)) {
+			return;
+		}
+
+		if (event.getLevel() == EventLevel.ERROR) {
+			enqueue(event);
+		}
+		else {
+			droppedCount.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (closed) {
+			return;
+		}
+
+		CountDownLatch handled = new CountDownLatch(1);
+		if (!enqueue(handled)) {
+			return;
+		}
+
+		//A marker queued after close, or a writer that died, would never count down
+		try {
+			while (!handled.await(LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (closed || !writerThread.isAlive()) {
+					return;
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**Write everything that was published, and stop the writer thread. Later events are ignored.*/
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		enqueue(STOP);
+		try {
+			writerThread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**Get the amount of events dropped because the queue was full, or the writer thread had stopped.*/
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**Wait for room in the queue, as long as the writer thread is running.
+	 *
+	 * @return	True if the item was queued.
+	 */
+	private boolean enqueue(Object item) {
+		try {
+			while (!queue.offer(item, LIVENESS_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (!writerThread.isAlive()) {
+					if (item instanceof SudokuEvent) {
+						droppedCount.incrementAndGet();
+					}
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void run() {
+		loadKnownIssues();
+
+		List<Object> batch = new ArrayList<>(BATCH_SIZE);
+		boolean running = true;
+		while (running) {
+			try {
+				batch.add(queue.take());
+			}
+			catch (InterruptedException e) {
+				//Only close stops the writer
+				continue;
+			}
+			queue.drainTo(batch, BATCH_SIZE - 1);
+
+			for (Object item : batch) {
+				if (item instanceof SudokuEvent) {
+					write((SudokuEvent)item);
+				}
+				else if (item instanceof CountDownLatch) {
+					flushOutputs();
+					((CountDownLatch)item).countDown();
+				}
+				else if (item == STOP) {
+					running = false;
+				}
+			}
+			batch.clear();
+
+			flushOutputs();
+		}
+
+		closeIssueWriter();
+	}
+
+	private void write(SudokuEvent event) {
+		try {
+			if (event.getLevel().compareTo(consoleLevel) >= 0) {
+				writeToConsole(event);
+			}
+
+			if ((event.getType() == EventType.SOLVER_FAILURE) && (event.getBoard() != null) && (issueFile != null)) {
+				writeIssue(event.getBoard());
+			}
+		}
+		catch (IOException | RuntimeException | AssertionError e) {
+			//One bad event or output must not stop the writer thread
+			System.err.println("Failed to write event: " + event + " (" + e + ")");
+		}
+	}
+
+	private void writeToConsole(SudokuEvent event) throws IOException {
+		console.append(event.toString()).append('\n');
+
+		CompactSudoku board = event.getBoard();
+		if (board != null) {
+			Sudoku sudoku = board.toSudoku();
+			sudoku.appendPrettyString(console, valueTexts);
+			console.append('\n');
+
+			SudokuCandidates candidates = event.getCandidates();
+			if (candidates != null) {
+				appendCandidates(sudoku, candidates);
+			}
+		}
+
+		for (String line : event.getDetails()) {
+			console.append(line).append('\n');
+		}
+	}
+
+	/**Write the candidates of every empty index on its own line.*/
+	private void appendCandidates(Sudoku sudoku, SudokuCandidates candidates) throws IOException {
+		for (int i = 0; i < 81; i++) {
+			if (sudoku.get(i) != 0) {
+				continue;
+			}
+
+			console.append("#").append(Integer.toString(i)).append(':');
+
+			int mask = candidates.getCandidateMask(i);
+			while (mask != 0) {
+				console.append(' ').append((char)('0' + Integer.numberOfTrailingZeros(mask) + 1));
+				mask &= mask - 1;
+			}
+			console.append('\n');
+		}
+	}
+
+	private void writeIssue(CompactSudoku board) throws IOException {
+		if (!knownIssues.add(board)) {
+			return;
+		}
+
+		if (issueWriter == null) {
+			issueWriter = Files.newBufferedWriter(issueFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+
+		sdmConverter.appendTo(issueWriter, board.toSudoku());
+		issueWriter.write('\n');
+	}
+
+	/**Read the boards already in the issue file, so they are not added again.*/
+	private void loadKnownIssues() {
+		if ((issueFile == null) || !Files.exists(issueFile)) {
+			return;
+		}
+
+		try {
+			for (String line : Files.readAllLines(issueFile, StandardCharsets.UTF_8)) {
+				if (line.strip().length() == 81) {
+					knownIssues.add(new CompactSudoku(sdmConverter.fromString(line)));
+				}
+			}
+		}
+		catch (IOException e) {
+			System.err.println("Failed to read " + issueFile + ", known issues may be repeated");
+		}
+	}
+
+	private void flushOutputs() {
+		try {
+			if (console instanceof Flushable) {
+				((Flushable)console).flush();
+			}
+			if (issueWriter != null) {
+				issueWriter.flush();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			System.err.println("Failed to flush events: " + e);
+		}
+	}
+
+	private void closeIssueWriter() {
+		if (issueWriter == null) {
+			return;
+		}
+
+		try {
+			issueWriter.close();
+		}
+		catch (IOException e) {
+			System.err.println("Failed to close " + issueFile);
+		}
+		issueWriter = null;
+	}
+}
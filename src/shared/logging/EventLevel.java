@@ -0,0 +1,9 @@
+package shared.logging;
+
+/**Severity of a SudokuEvent, from least to most severe.*/
+public enum EventLevel {
+	DEBUG,
+	INFO,
+	WARNING,
+	ERROR,
+}
@@ -0,0 +1,15 @@
+package shared.logging;
+
+/**What a SudokuEvent is about.*/
+public enum EventType {
+	/**A filled board generator started, finished or failed an attempt.*/
+	GENERATION_ATTEMPT,
+	/**A puzzle was generated.*/
+	GENERATED,
+	/**Progress of a verbose grade.*/
+	GRADE_PROGRESS,
+	/**A single step of a verbose grade.*/
+	GRADE_STEP,
+	/**The solver failed on a board. These events carry the board, and are written to the known issues file.*/
+	SOLVER_FAILURE,
+}
@@ -0,0 +1,21 @@
+package shared.logging;
+
+/**Receiver of SudokuEvents. Implementations must be thread-safe, as the solver may grade on several threads.*/
+public interface ISudokuEventSink {
+	/**Sink that drops every event.*/
+	public static final ISudokuEventSink DISCARD = new ISudokuEventSink() {
+		@Override
+		public boolean isEnabled(EventLevel level) { return false; }
+
+		@Override
+		public void publish(SudokuEvent event) {}
+	};
+
+	/**Check if events of a level would be kept. Publishers check this before building an event, so disabled levels cost nothing.*/
+	public boolean isEnabled(EventLevel level);
+
+	public void publish(SudokuEvent event);
+
+	/**Wait until all events published so far have been handled.*/
+	public default void flush() {}
+}
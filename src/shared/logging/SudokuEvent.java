@@ -0,0 +1,62 @@
+package shared.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import shared.model.CompactSudoku;
+import shared.model.Sudoku;
+import shared.model.SudokuCandidates;
+import shared.utility.RuntimeAssert;
+
+/**Structured event from the solver or the generators. Immutable, so it can be handed to another thread for writing.*/
+public final class SudokuEvent {
+	private final long timeMillis;
+	private final EventLevel level;
+	private final EventType type;
+	private final String message;
+	private final CompactSudoku board;
+	private final SudokuCandidates candidates;
+	private final List<String> details;
+
+	public SudokuEvent(EventLevel _level, EventType _type, String _message) {
+		this(_level, _type, _message, null, null, null);
+	}
+
+	/**
+	 * @param _level	Severity of the event.
+	 * @param _type		What the event is about.
+	 * @param _message	Single line summary.
+	 * @param _board	Board the event is about, copied. May be null.
+	 * @param _candidates	Candidate state at the time of the event, copied. May be null.
+	 * @param _details	Extra lines, such as the steps leading up to a failure, copied. May be null.
+	 */
+	public SudokuEvent(EventLevel _level, EventType _type, String _message, Sudoku _board, SudokuCandidates _candidates, List<String> _details) {
+		RuntimeAssert.notNull(_level);
+		RuntimeAssert.notNull(_type);
+		RuntimeAssert.notNull(_message);
+
+		timeMillis = System.currentTimeMillis();
+		level = _level;
+		type = _type;
+		message = _message;
+		board = (_board != null) ? new CompactSudoku(_board) : null;
+		candidates = (_candidates != null) ? new SudokuCandidates(_candidates) : null;
+		details = (_details != null) ? Collections.unmodifiableList(new ArrayList<>(_details)) : Collections.emptyList();
+	}
+
+	public long getTimeMillis() { return timeMillis; }
+	public EventLevel getLevel() { return level; }
+	public EventType getType() { return type; }
+	public String getMessage() { return message; }
+	/**Get the board the event is about, or null if there is none.*/
+	public CompactSudoku getBoard() { return board; }
+	/**Get the candidate state at the time of the event, or null if there is none. The candidates must not be modified.*/
+	public SudokuCandidates getCandidates() { return candidates; }
+	public List<String> getDetails() { return details; }
+
+	@Override
+	public String toString() {
+		return "[" + level + "] " + type + ": " + message;
+	}
+}
@@ -8,4 +8,20 @@ import javafx.util.StringConverter;
 public abstract class ASudokuFormatter {
 	public abstract StringConverter<Integer> getConverter();
 	public abstract UnaryOperator<Change> getFilter();
+
+	/**Get the display text of every value 0-9, indexed by value.
+	 * Converting all values once is cheaper than going through the converter for every cell when rendering whole boards.
+	 *
+	 * @return	New String[10] where element n is the text for value n.
+	 */
+	public String[] getValueTexts() {
+		StringConverter<Integer> converter = getConverter();
+		String[] texts = new String[10];
+
+		for (int value = 0; value < 10; value++) {
+			texts[value] = converter.toString(value);
+		}
+
+		return texts;
+	}
 }
@@ -4,52 +4,101 @@ import java.util.Arrays;
 
 import shared.utility.RuntimeAssert;
 
-/**Compact representation of a sudoku, where each digit is represented as a 4-bit nibble
+/**Compact, immutable representation of a sudoku, packed into five longs.
+ * Cells are grouped in threes, and each group is stored as a 3-digit decimal number in 10 bits.
+ * Every long holds 6 groups in its lower 60 bits, with the earliest group in the most significant position,
+ * so comparing the longs in order compares the cells in order.
  *
+ * Equal boards have equal packed forms, which makes this usable as a map key or for sorting and deduplication.
  */
-public class CompactSudoku {
-	byte[] contents;
+public final class CompactSudoku implements Comparable<CompactSudoku> {
+	private static final int GROUP_BITS = 10;
+	private static final int GROUP_MASK = (1 << GROUP_BITS) - 1;
+	private static final int GROUPS_PER_WORD = 6;
+	private static final int WORD_COUNT = 5;
+	private static final int[] DIGIT_WEIGHTS = {100, 10, 1};
+
+	private final long[] packed = new long[WORD_COUNT];
+	private final int hash;
 
 	public CompactSudoku(Sudoku sudoku) {
-		contents = new byte[41];
-		Arrays.fill(contents, (byte)0);
+		for (int group = 0; group < 27; group++) {
+			int first = group * 3;
+			int groupValue = sudoku.get(first) * 100 + sudoku.get(first + 1) * 10 + sudoku.get(first + 2);
 
-		for (int i = 0; i < 81; i++) {
-			set(i, sudoku.get(i));
+			packed[group / GROUPS_PER_WORD] |= (long)groupValue << groupShift(group);
 		}
+
+		hash = Arrays.hashCode(packed);
 	}
 
-	private void set(int index, int value) {
+	public int get(int index) {
 		RuntimeAssert.inRange(index, 0, 81);
 
-		byte targetByte = getSourceByte(index);
+		return (getGroup(index / 3) / DIGIT_WEIGHTS[index % 3]) % 10;
+	}
 
-		if (isUpperNibble(index)) {
-			contents[targetByte] = (byte)((contents[targetByte] & 0x0f) | ((value & 0x0f) << 4));
-		}
-		else {
-			contents[targetByte] = (byte)((contents[targetByte] & 0xf0) | (value & 0x0f));
+	/**Convert back to a full sudoku. Equivalent to new Sudoku(this).*/
+	public Sudoku toSudoku() {
+		return new Sudoku(this);
+	}
+
+	/**Write all 81 values into a target array without range checks.
+	 *
+	 * @param target	Array of atleast 81 elements that receives the values.
+	 */
+	void copyTo(int[] target) {
+		for (int group = 0; group < 27; group++) {
+			int groupValue = getGroup(group);
+			int first = group * 3;
+
+			target[first] = groupValue / 100;
+			target[first + 1] = (groupValue / 10) % 10;
+			target[first + 2] = groupValue % 10;
 		}
 	}
 
-	public int get(int index) {
-		RuntimeAssert.inRange(index, 0, 81);
+	/**Get a copy of the packed form. Equal sudokus always have equal packed forms.*/
+	public long[] getPacked() {
+		return Arrays.copyOf(packed, WORD_COUNT);
+	}
 
-		byte sourceByte = getSourceByte(index);
+	@Override
+	public int hashCode() {
+		return hash;
+	}
 
-		if (isUpperNibble(index)) {
-			return (contents[sourceByte] & 0xf0) >> 4;
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CompactSudoku)) {
+			return false;
 		}
-		else {
-			return (contents[sourceByte] & 0x0f);
+
+		CompactSudoku other = (CompactSudoku)o;
+		return (hash == other.hash) && Arrays.equals(packed, other.packed);
+	}
+
+	/**Compare cell by cell from index 0, where the first differing cell decides the order.*/
+	@Override
+	public int compareTo(CompactSudoku other) {
+		for (int word = 0; word < WORD_COUNT; word++) {
+			int comparison = Long.compare(packed[word], other.packed[word]);
+			if (comparison != 0) {
+				return comparison;
+			}
 		}
+
+		return 0;
 	}
 
-	private byte getSourceByte(int index) {
-		return (byte)(index / 2);
+	private int getGroup(int group) {
+		return (int)((packed[group / GROUPS_PER_WORD] >>> groupShift(group)) & GROUP_MASK);
 	}
 
-	private boolean isUpperNibble(int index) {
-		return index % 2 == 0;
+	private static int groupShift(int group) {
+		return (GROUPS_PER_WORD - 1 - (group % GROUPS_PER_WORD)) * GROUP_BITS;
 	}
 }
@@ -1,12 +1,42 @@
 package shared.model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import shared.utility.RuntimeAssert;
 
 public class Sudoku implements Cloneable {
+	/**Random key for every cell and value, stored at [index * 10 + value]. Empty cells have a key of 0.
+	 * The seed is fixed so hashes are the same between runs.
+	 */
+	private static final long[] ZOBRIST_KEYS = new long[81 * 10];
+
+	private static final String PRETTY_BORDER = "----------------------";//22 dashes
+	private static final int PRETTY_STRING_CAPACITY = 256;
+
+	static {
+		Random keyGenerator = new Random(0x5D0C0_5EEDL);
+		for (int i = 0; i < 81; i++) {
+			for (int value = 1; value < 10; value++) {
+				ZOBRIST_KEYS[i * 10 + value] = keyGenerator.nextLong();
+			}
+		}
+	}
+
 	private int[] contents;
 	private SudokuSelection issues;
+	/**Cells holding each value, indexed by value. Element 0 holds the empty cells. Kept up to date by set and fill.*/
+	private SudokuSelection[] valueCells;
+	/**How many times each value appears in each house, stored at [house * 10 + value]. Kept up to date by set and fill.*/
+	private int[] houseValueCounts;
+	/**XOR of the zobrist keys of every cell's current value. Kept up to date by set and fill.*/
+	private long zobristHash = 0L;
+	/**How many sudokus share the arrays and selections above. Shared state is copied by whoever writes to it first.*/
+	private AtomicInteger stateHolders = new AtomicInteger(1);
 
 	public Sudoku() {
 		contents = new int[81];
@@ -15,30 +45,55 @@ public class Sudoku implements Cloneable {
 		}
 
 		issues = new SudokuSelection();
+
+		valueCells = new SudokuSelection[10];
+		valueCells[0] = SudokuSelection.all();
+		for (int value = 1; value < 10; value++) {
+			valueCells[value] = new SudokuSelection();
+		}
+
+		//Every house starts out with 9 empty cells
+		houseValueCounts = new int[SudokuHouses.HOUSE_COUNT * 10];
+		for (int house = 0; house < SudokuHouses.HOUSE_COUNT; house++) {
+			houseValueCounts[house * 10] = 9;
+		}
 	}
 
+	/**Construct a sudoku from its compact representation.
+	 * All values are copied at once and the tracking state is rebuilt once, instead of going through set for every cell.
+	 *
+	 * @param compactRep
+	 */
 	public Sudoku(CompactSudoku compactRep) {
 		this();
 
-		for (int i = 0; i < 81; i++) {
-			set(compactRep.get(i), i);
-		}
+		compactRep.copyTo(contents);
+		rebuildTracking();
 	}
 
 	public CompactSudoku getCompact() {
 		return new CompactSudoku(this);
 	}
 
+	/**Get the 64-bit zobrist hash of the current contents. This is maintained on every write, so it costs nothing to call.
+	 * Equal contents always give equal hashes.
+	 *
+	 * @return	The zobrist hash.
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(contents);
+		return Long.hashCode(zobristHash);
 	}
 
 	@Override
 	public boolean equals(Object o) {
 		try {
 			Sudoku other = (Sudoku)o;
-			if (this.hashCode() != other.hashCode()) {
+			if (this.zobristHash != other.zobristHash) {
 				return false;
 			}
 
@@ -49,15 +104,42 @@ public class Sudoku implements Cloneable {
 		}
 	}
 
+	/**Make a copy of this sudoku in constant time.
+	 * The clone shares its state with this sudoku until one of them is written to, at which point the writer copies the state for itself.
+	 * Once the other holders have copied, the last remaining holder writes in place again.
+	 */
 	@Override
 	public Sudoku clone() {
-		Sudoku clone = new Sudoku();
+		try {
+			Sudoku clone = (Sudoku)super.clone();
+			stateHolders.incrementAndGet();
 
-		clone.contents = Arrays.copyOf(this.contents, 81);
-		clone.issues = new SudokuSelection(issues);
+			return clone;
+		}
+		catch (CloneNotSupportedException e) {
+			throw new AssertionError("Sudoku is Cloneable, but cloning failed!", e);
+		}
+	}
 
-		return clone;
+	/**Give this sudoku its own copy of any state shared with clones. Must be called before every write.*/
+	private void prepareWrite() {
+		if (stateHolders.get() == 1) {
+			return;
+		}
 
+		contents = Arrays.copyOf(contents, 81);
+		issues = new SudokuSelection(issues);
+
+		SudokuSelection[] sharedValueCells = valueCells;
+		valueCells = new SudokuSelection[10];
+		for (int value = 0; value < 10; value++) {
+			valueCells[value] = new SudokuSelection(sharedValueCells[value]);
+		}
+
+		houseValueCounts = Arrays.copyOf(houseValueCounts, houseValueCounts.length);
+
+		stateHolders.decrementAndGet();
+		stateHolders = new AtomicInteger(1);
 	}
 
 	public int get(int index) {
@@ -69,8 +151,27 @@ public class Sudoku implements Cloneable {
 			value = 0;
 		}
 
+		prepareWrite();
+
+		int oldValue = contents[index];
+		writeCell(index, value);
+		refreshCellIssues(index, oldValue);
+	}
+
+	/**Write a value to a cell while keeping the value selections and house counts up to date. Issues are not refreshed.*/
+	private void writeCell(int index, int value) {
+		int oldValue = contents[index];
+
+		valueCells[oldValue].remove(index);
+		valueCells[value].add(index);
+
+		for (int house : SudokuHouses.housesOf(index)) {
+			houseValueCounts[house * 10 + oldValue]--;
+			houseValueCounts[house * 10 + value]++;
+		}
+
+		zobristHash ^= ZOBRIST_KEYS[index * 10 + oldValue] ^ ZOBRIST_KEYS[index * 10 + value];
 		contents[index] = value;
-		refreshCellIssues(index);
 	}
 
 	/**Filter indices in a selection to only those filled with a specific value inside the Sudoku.
@@ -80,59 +181,137 @@ public class Sudoku implements Cloneable {
 	 * @return	A new selection containing only indices from the given selection that have the desired value inside this Sudoku.
 	 */
 	public SudokuSelection valueFilter(int value, SudokuSelection selection) {
-		SudokuSelection newSelection = new SudokuSelection();
+		if ((value < 0) || (value > 9)) {
+			return new SudokuSelection();
+		}
 
-		for (Integer index : selection) {
-			if (contents[index] == value) {
-				newSelection.add(index);
-			}
+		return valueCells[value].getIntersectionWith(selection);
+	}
+
+	/**Count the indices in a selection that are filled with a specific value, without creating a new selection.
+	 *
+	 * @param value
+	 * @param selection
+	 * @return	The size valueFilter(value, selection) would have.
+	 */
+	public int valueCount(int value, SudokuSelection selection) {
+		if ((value < 0) || (value > 9)) {
+			return 0;
 		}
 
-		return newSelection;
+		return valueCells[value].countIntersectionWith(selection);
+	}
+
+	/**Get the amount of cells holding a specific value. A value of 0 counts the empty cells.*/
+	public int valueCount(int value) {
+		if ((value < 0) || (value > 9)) {
+			return 0;
+		}
+
+		return valueCells[value].size();
+	}
+
+	public int getFilledCount() {
+		return 81 - valueCells[0].size();
 	}
 
 	public void fill(SudokuSelection selection, int value) {
-		for (Integer index : selection) {
-			contents[index] = value;
+		if (value < 0 || value > 9) {
+			value = 0;
+		}
+
+		prepareWrite();
+
+		PrimitiveIterator.OfInt indices = selection.iterator();
+		while (indices.hasNext()) {
+			int index = indices.nextInt();
+			int oldValue = contents[index];
+			writeCell(index, value);
+			refreshCellIssues(index, oldValue);
 		}
 	}
 
 	public String getPrettyString(ASudokuFormatter formatter) {
-		String result = "";
+		StringBuilder result = new StringBuilder(PRETTY_STRING_CAPACITY);
+
+		try {
+			appendPrettyString(result, formatter);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("StringBuilder failed to append!", e);
+		}
+
+		return result.toString();
+	}
+
+	/**Write the same text as getPrettyString directly into a target, without building intermediate strings.
+	 *
+	 * @param out	Target to write to, such as a StringBuilder, CharBuffer or Writer.
+	 * @param formatter	Formatter that decides how each value is displayed.
+	 * @throws IOException	thrown if the target fails to accept the text.
+	 */
+	public void appendPrettyString(Appendable out, ASudokuFormatter formatter) throws IOException {
+		appendPrettyString(out, formatter.getValueTexts());
+	}
+
+	/**Write the same text as getPrettyString directly into a target, without building intermediate strings.
+	 * Use this when rendering many sudokus, so the value texts only have to be made once.
+	 *
+	 * @param out	Target to write to, such as a StringBuilder, CharBuffer or Writer.
+	 * @param valueTexts	Display text of every value, indexed by value. See ASudokuFormatter.getValueTexts.
+	 * @throws IOException	thrown if the target fails to accept the text.
+	 */
+	public void appendPrettyString(Appendable out, String[] valueTexts) throws IOException {
 		for (int row = 0; row < 9; row++) {
 			//Horisontal border every 3 rows
 			if (row % 3 == 0) {
-				result += "----------------------\n";//22 dashes
+				out.append(PRETTY_BORDER).append('\n');
 			}
 			for (int column = 0; column < 9; column++) {
 				//Vertical border every 3 columns
 				if (column % 3 == 0) {
-					result += "|";
+					out.append('|');
 				}
-				result += " " + formatter.getConverter().toString(get(positionToIndex(column, row)));
+				out.append(' ').append(valueTexts[contents[row * 9 + column]]);
 			}
 			//Finish each row with another border, and a newline
-			result += "|\n";
+			out.append("|\n");
 		}
 		//Finish the entire print with another horisontal border
-		result += "----------------------";
-
-		return result;
+		out.append(PRETTY_BORDER);
 	}
 
-	public void regenerateIssues() {
-		issues.clear();
+	/**Rebuild the value selections, house counts and issues from the contents array.*/
+	private void rebuildTracking() {
+		for (int value = 0; value < 10; value++) {
+			valueCells[value].clear();
+		}
 
-		for (int row = 0; row < 9; row++) {
-			selectHouseIssues(SudokuSelection.row(row), issues);
+		zobristHash = 0L;
+		for (int i = 0; i < 81; i++) {
+			valueCells[contents[i]].add(i);
+			zobristHash ^= ZOBRIST_KEYS[i * 10 + contents[i]];
 		}
 
-		for (int col = 0; col < 9; col++) {
-			selectHouseIssues(SudokuSelection.column(col), issues);
+		regenerateIssues();
+	}
+
+	/**Recount all values per house and rebuild the issue selection from scratch.*/
+	public void regenerateIssues() {
+		prepareWrite();
+
+		Arrays.fill(houseValueCounts, 0);
+		for (int i = 0; i < 81; i++) {
+			for (int house : SudokuHouses.housesOf(i)) {
+				houseValueCounts[house * 10 + contents[i]]++;
+			}
 		}
 
-		for (int sqr = 0; sqr < 9; sqr++) {
-			selectHouseIssues(SudokuSelection.square(sqr), issues);
+		issues.clear();
+		for (int i = 0; i < 81; i++) {
+			if (isInConflict(i)) {
+				issues.add(i);
+			}
 		}
 	}
 
@@ -149,54 +328,54 @@ public class Sudoku implements Cloneable {
 	}
 
 	public boolean hasEmptyCells() {
-		return valueFilter(0, SudokuSelection.all()).size() > 0;
+		return !valueCells[0].isEmpty();
 	}
 
 	public boolean isSolved() {
 		return isLegalBoardState() && (!hasEmptyCells());
 	}
 
-	private void refreshCellIssues(int cellIndex) {
-		int row = indexToRow(cellIndex);
-		int col = indexToColumn(cellIndex);
-		int sqr = indexToSquare(cellIndex);
-
-		SudokuSelection issueSet = new SudokuSelection();
-
-		SudokuSelection rowSelect = SudokuSelection.row(row);
-		SudokuSelection colSelect = SudokuSelection.column(col);
-		SudokuSelection sqrSelect = SudokuSelection.square(sqr);
-
-		selectHouseIssues(rowSelect, issueSet);
-		selectHouseIssues(colSelect, issueSet);
-		selectHouseIssues(sqrSelect, issueSet);
-
-		SudokuSelection joined = rowSelect.getUnionWith(colSelect).getUnionWith(sqrSelect);
-
-		for (Integer index : joined) {
-			if (issueSet.contains(index)) {
-				issues.add(index);
-			}
-			else {
-				issues.remove(index);
+	/**Update the issue state of every cell that could have gained or lost a conflict from a write to the given cell.
+	 * Only the cell itself, and peers holding either the old or the new value are affected.
+	 *
+	 * @param cellIndex	The cell that was written.
+	 * @param oldValue	The value the cell held before the write.
+	 */
+	private void refreshCellIssues(int cellIndex, int oldValue) {
+		refreshIssueAt(cellIndex);
+
+		int newValue = contents[cellIndex];
+		for (int peer : SudokuHouses.peerIndices(cellIndex)) {
+			int peerValue = contents[peer];
+			if ((peerValue != 0) && ((peerValue == oldValue) || (peerValue == newValue))) {
+				refreshIssueAt(peer);
 			}
 		}
 	}
 
-	/**Find all duplicated value in a section, and add them to a given selection.
-	 * All 1-9 values (inclusive) that appear more than once in the section have all the indices they appear at added to the selectionTarget.
-	 *
-	 * @param house	The area to look for duplicates in.
-	 * @param selectionTarget	The target to add duplicated values to.
-	 */
-	private void selectHouseIssues(SudokuSelection house, SudokuSelection selectionTarget) {
-		for (int i = 0; i < 9; i++) {
-			int candidate = i + 1;
-			SudokuSelection appearances = valueFilter(candidate, house);
-			if (appearances.size() > 1) {
-				selectionTarget.addAll(appearances);
+	private void refreshIssueAt(int cellIndex) {
+		if (isInConflict(cellIndex)) {
+			issues.add(cellIndex);
+		}
+		else {
+			issues.remove(cellIndex);
+		}
+	}
+
+	/**Check if the value of a cell appears more than once in any of its houses. Empty cells are never in conflict.*/
+	private boolean isInConflict(int cellIndex) {
+		int value = contents[cellIndex];
+		if (value == 0) {
+			return false;
+		}
+
+		for (int house : SudokuHouses.housesOf(cellIndex)) {
+			if (houseValueCounts[house * 10 + value] > 1) {
+				return true;
 			}
 		}
+
+		return false;
 	}
 
 	//--Indexing functions
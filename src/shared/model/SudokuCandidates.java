@@ -1,17 +1,19 @@
 package shared.model;
 
 import java.util.Arrays;
+import java.util.PrimitiveIterator;
 
-import shared.utility.ArrayExtras;
 import shared.utility.RuntimeAssert;
 
 public class SudokuCandidates {
-	/**Layout: 9 consecutive flags for if a value can be at a given index.*/
-	private boolean[] candidates = new boolean[81 * 9];
+	/**Mask with all 9 candidate bits set.*/
+	public static final int ALL_CANDIDATES = 0x1ff;
+
+	/**Layout: one 9-bit mask per index, where bit (candidate - 1) is set if the candidate can be at that index.*/
+	private short[] candidates = new short[81];
 
 	public SudokuCandidates() {
-		candidates = new boolean[81 * 9];
-		Arrays.fill(candidates, true);
+		addAllCandidates();
 	}
 
 	public SudokuCandidates(Sudoku sudoku) {
@@ -24,16 +26,35 @@ public class SudokuCandidates {
 		}
 	}
 
+	public SudokuCandidates(SudokuCandidates existing) {
+		candidates = Arrays.copyOf(existing.candidates, 81);
+	}
+
+	/**Get the mask bit that represents a candidate value.
+	 *
+	 * @param candidate	Candidate value 1-9.
+	 * @return	Mask with only bit (candidate - 1) set.
+	 */
+	public static int candidateBit(int candidate) {
+		return 1 << (candidate - 1);
+	}
+
 	public boolean hasCandidate(int index, int candidate) {
-		return candidates[getInternalIndex(index, candidate)];
+		RuntimeAssert.inRange(candidate, 1, 10);
+
+		return (getCandidateMask(index) & candidateBit(candidate)) != 0;
+	}
+
+	/**Get the amount of candidates at an index.*/
+	public int candidateCount(int index) {
+		return Integer.bitCount(getCandidateMask(index));
 	}
 
 	public SudokuSelection getNonEmpty() {
 		SudokuSelection selection = new SudokuSelection();
 
 		for (int i = 0; i < 81; i++) {
-			int trueIndex = internalIndex(i);
-			if (ArrayExtras.frequencyRange(candidates, trueIndex, trueIndex + 9, true) > 0) {
+			if (candidates[i] != 0) {
 				selection.add(i);
 			}
 		}
@@ -41,56 +62,124 @@ public class SudokuCandidates {
 		return selection;
 	}
 
+	/**Get the candidates of an index as a 9-bit mask, where bit (candidate - 1) is set if the candidate is present.
+	 *
+	 * @param index	Index to get the candidates for.
+	 * @return	The candidate mask.
+	 */
+	public int getCandidateMask(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return candidates[index];
+	}
+
+	/**Get the candidates of an index as a 9 element array, where element (candidate - 1) is true if the candidate is present.
+	 * Prefer getCandidateMask, which does not allocate.
+	 *
+	 * @param index	Index to get the candidates for.
+	 * @return	New boolean[9] with the candidates of the index.
+	 */
 	public boolean[] getMask(int index) {
-		int trueIndex = internalIndex(index);
-		return Arrays.copyOfRange(candidates, trueIndex, trueIndex + 9);
+		int mask = getCandidateMask(index);
+		boolean[] result = new boolean[9];
+
+		for (int i = 0; i < 9; i++) {
+			result[i] = (mask & (1 << i)) != 0;
+		}
+
+		return result;
 	}
-	
+
 	public void addAllCandidates() {
-		Arrays.fill(candidates, true);
+		Arrays.fill(candidates, (short)ALL_CANDIDATES);
 	}
 
 	public void removeAllCandidates() {
-		Arrays.fill(candidates, false);
+		Arrays.fill(candidates, (short)0);
 	}
 
 	public void addAllCandidatesAt(int index) {
-		fill(index, true);
+		setCandidateMask(index, ALL_CANDIDATES);
 	}
 
 	public void removeAllCandidatesAt(int index) {
-		fill(index, false);
+		setCandidateMask(index, 0);
 	}
 
 	public boolean removeCandidate(int index, int candidate) {
-		return set(index, candidate, false);
+		RuntimeAssert.inRange(candidate, 1, 10);
+
+		int oldMask = getCandidateMask(index);
+		candidates[index] = (short)(oldMask & ~candidateBit(candidate));
+
+		return candidates[index] != oldMask;
 	}
 
 	public boolean addCandidate(int index, int candidate) {
-		return set(index, candidate, true);
-	}
+		RuntimeAssert.inRange(candidate, 1, 10);
 
-	private void fill(int index, boolean value) {
-		int internalIndex = internalIndex(index);
-		Arrays.fill(candidates, internalIndex, internalIndex + 9, value);
+		int oldMask = getCandidateMask(index);
+		candidates[index] = (short)(oldMask | candidateBit(candidate));
+
+		return candidates[index] != oldMask;
 	}
 
-	private boolean set(int index, int candidate, boolean value) {
-		int internalIndex = getInternalIndex(index, candidate);
-		boolean result = candidates[internalIndex] != value;
+	/**Replace all candidates at an index with the candidates of a mask.
+	 *
+	 * @param index	Index to modify.
+	 * @param mask	9-bit candidate mask, bits above the 9th are ignored.
+	 */
+	public void setCandidateMask(int index, int mask) {
+		RuntimeAssert.inRange(index, 0, 81);
 
-		candidates[internalIndex] = value;
-		return result;
+		candidates[index] = (short)(mask & ALL_CANDIDATES);
 	}
 
-	private int getInternalIndex(int sudokuIndex, int candidate) {
-		RuntimeAssert.inRange(sudokuIndex, 0, 81);
+	/**Remove a candidate from several indices at once.
+	 *
+	 * @param indices	Indices to remove the candidate from, such as SudokuHouses.peerIndices.
+	 * @param candidate	Candidate value 1-9.
+	 * @return	The amount of indices that had the candidate before removal.
+	 */
+	public int removeCandidate(int[] indices, int candidate) {
 		RuntimeAssert.inRange(candidate, 1, 10);
 
-		return sudokuIndex * 9 + candidate - 1;
+		int bit = candidateBit(candidate);
+		int removed = 0;
+
+		for (int index : indices) {
+			int mask = candidates[index];
+			if ((mask & bit) != 0) {
+				candidates[index] = (short)(mask & ~bit);
+				removed++;
+			}
+		}
+
+		return removed;
 	}
 
-	private int internalIndex(int sudokuIndex) {
-		return getInternalIndex(sudokuIndex, 1);
+	/**Remove a candidate from all indices in a selection.
+	 *
+	 * @param selection	Indices to remove the candidate from.
+	 * @param candidate	Candidate value 1-9.
+	 * @return	The amount of indices that had the candidate before removal.
+	 */
+	public int removeCandidate(SudokuSelection selection, int candidate) {
+		RuntimeAssert.inRange(candidate, 1, 10);
+
+		int bit = candidateBit(candidate);
+		int removed = 0;
+
+		PrimitiveIterator.OfInt indices = selection.iterator();
+		while (indices.hasNext()) {
+			int index = indices.nextInt();
+			int mask = candidates[index];
+			if ((mask & bit) != 0) {
+				candidates[index] = (short)(mask & ~bit);
+				removed++;
+			}
+		}
+
+		return removed;
 	}
 }
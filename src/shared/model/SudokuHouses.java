@@ -0,0 +1,227 @@
+package shared.model;
+
+import shared.utility.RuntimeAssert;
+
+/**Precomputed lookup tables for the 27 houses of a sudoku and the 20 peers of every cell.
+ * Houses are numbered with rows first (0-8), then columns (9-17), then squares (18-26).
+ *
+ * All selections handed out by this class are shared and read-only, trying to modify them throws an UnsupportedOperationException.
+ *
+ * The int arrays from cellsOf, housesOf, positionsOf and peerIndices are the shared backing tables, and must not be modified by callers.
+ * This is a deliberate tradeoff: they are read in the innermost loops of the solver and the strategies,
+ * where a defensive copy or an accessor call per element would cost more than the tables save.
+ * A write to one of them corrupts the lookups for every user in the JVM, so treat them as constants.
+ */
+public final class SudokuHouses {
+	public static final int HOUSE_COUNT = 27;
+	public static final int FIRST_ROW = 0;
+	public static final int FIRST_COLUMN = 9;
+	public static final int FIRST_SQUARE = 18;
+
+	private static final SudokuSelection ALL = new ReadOnlySelection(SudokuSelection.all());
+	private static final SudokuSelection[] HOUSES = new SudokuSelection[HOUSE_COUNT];
+	private static final int[][] HOUSE_CELLS = new int[HOUSE_COUNT][9];
+	private static final int[][] CELL_HOUSES = new int[81][3];
+	private static final int[][] CELL_POSITIONS = new int[81][3];
+	private static final SudokuSelection[] PEERS = new SudokuSelection[81];
+	private static final int[][] PEER_CELLS = new int[81][];
+	private static final SudokuSelection[] PEERS_AND_SELF = new SudokuSelection[81];
+	private static final SudokuSelection[] CELLS = new SudokuSelection[81];
+
+	static {
+		int[] houseFill = new int[HOUSE_COUNT];
+
+		for (int i = 0; i < 81; i++) {
+			int rowHouse = FIRST_ROW + Sudoku.indexToRow(i);
+			int colHouse = FIRST_COLUMN + Sudoku.indexToColumn(i);
+			int sqrHouse = FIRST_SQUARE + Sudoku.indexToSquare(i);
+
+			CELL_HOUSES[i][0] = rowHouse;
+			CELL_HOUSES[i][1] = colHouse;
+			CELL_HOUSES[i][2] = sqrHouse;
+
+			CELL_POSITIONS[i][0] = houseFill[rowHouse];
+			CELL_POSITIONS[i][1] = houseFill[colHouse];
+			CELL_POSITIONS[i][2] = houseFill[sqrHouse];
+
+			HOUSE_CELLS[rowHouse][houseFill[rowHouse]++] = i;
+			HOUSE_CELLS[colHouse][houseFill[colHouse]++] = i;
+			HOUSE_CELLS[sqrHouse][houseFill[sqrHouse]++] = i;
+		}
+
+		for (int house = 0; house < HOUSE_COUNT; house++) {
+			SudokuSelection selection = new SudokuSelection();
+			for (int index : HOUSE_CELLS[house]) {
+				selection.add(index);
+			}
+
+			HOUSES[house] = new ReadOnlySelection(selection);
+		}
+
+		for (int i = 0; i < 81; i++) {
+			SudokuSelection peers = new SudokuSelection();
+			for (int house : CELL_HOUSES[i]) {
+				peers.addAll(HOUSES[house]);
+			}
+			peers.remove(i);
+
+			PEER_CELLS[i] = peers.indices().toArray();
+
+			PEERS[i] = new ReadOnlySelection(peers);
+
+			SudokuSelection cell = new SudokuSelection(i);
+			CELLS[i] = new ReadOnlySelection(cell);
+			PEERS_AND_SELF[i] = new ReadOnlySelection(peers.getUnionWith(cell));
+		}
+	}
+
+	private SudokuHouses() {}
+
+	/**Get the shared read-only selection containing every cell.*/
+	public static SudokuSelection all() {
+		return ALL;
+	}
+
+	/**Get the shared read-only selection for a house.
+	 *
+	 * @param house	House number, rows are 0-8, columns 9-17 and squares 18-26.
+	 * @return	The cells of the house.
+	 */
+	public static SudokuSelection house(int house) {
+		RuntimeAssert.inRange(house, 0, HOUSE_COUNT);
+
+		return HOUSES[house];
+	}
+
+	public static SudokuSelection row(int row) {
+		RuntimeAssert.inRange(row, 0, 9);
+
+		return HOUSES[FIRST_ROW + row];
+	}
+
+	public static SudokuSelection column(int col) {
+		RuntimeAssert.inRange(col, 0, 9);
+
+		return HOUSES[FIRST_COLUMN + col];
+	}
+
+	public static SudokuSelection square(int sqr) {
+		RuntimeAssert.inRange(sqr, 0, 9);
+
+		return HOUSES[FIRST_SQUARE + sqr];
+	}
+
+	/**Get the cells of a house in ascending order. The returned array is shared and must not be modified.
+	 *
+	 * @param house	House number, rows are 0-8, columns 9-17 and squares 18-26.
+	 * @return	The 9 cell indices of the house.
+	 */
+	public static int[] cellsOf(int house) {
+		RuntimeAssert.inRange(house, 0, HOUSE_COUNT);
+
+		return HOUSE_CELLS[house];
+	}
+
+	/**Get the houses a cell belongs to. The returned array is shared and must not be modified.
+	 *
+	 * @param index	Cell index.
+	 * @return	The row, column and square house numbers of the cell, in that order.
+	 */
+	public static int[] housesOf(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return CELL_HOUSES[index];
+	}
+
+	/**Get the position of a cell inside each of its houses, which is its index in cellsOf for that house.
+	 * The returned array is shared and must not be modified.
+	 *
+	 * @param index	Cell index.
+	 * @return	The positions of the cell in its row, column and square, in the same order as housesOf.
+	 */
+	public static int[] positionsOf(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return CELL_POSITIONS[index];
+	}
+
+	/**Get the shared read-only selection of all cells that share a house with the given cell, excluding the cell itself.
+	 *
+	 * @param index	Cell index.
+	 * @return	The 20 peers of the cell.
+	 */
+	public static SudokuSelection peers(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return PEERS[index];
+	}
+
+	/**Get the shared read-only selection of a cell and all its peers.
+	 *
+	 * @param index	Cell index.
+	 * @return	The 21 cells sharing a house with the cell, including the cell itself.
+	 */
+	public static SudokuSelection peersAndSelf(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return PEERS_AND_SELF[index];
+	}
+
+	/**Get the shared read-only selection containing only the given cell.*/
+	public static SudokuSelection cell(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return CELLS[index];
+	}
+
+	/**Get the peers of a cell in ascending order. The returned array is shared and must not be modified.
+	 *
+	 * @param index	Cell index.
+	 * @return	The 20 peer indices of the cell.
+	 */
+	public static int[] peerIndices(int index) {
+		RuntimeAssert.inRange(index, 0, 81);
+
+		return PEER_CELLS[index];
+	}
+
+	/**Make a read-only copy of a selection, for tables that are shared like the ones in this class.
+	 *
+	 * @param source	Selection to copy. Only read during construction.
+	 * @return	A selection that throws an UnsupportedOperationException on every modification.
+	 */
+	public static SudokuSelection readOnlyCopy(SudokuSelection source) {
+		RuntimeAssert.notNull(source);
+
+		return new ReadOnlySelection(source);
+	}
+
+	/**Selection that refuses every modification after construction.*/
+	private static final class ReadOnlySelection extends SudokuSelection {
+		ReadOnlySelection(SudokuSelection source) {
+			super(source);
+		}
+
+		@Override
+		public boolean add(int index) { throw readOnly(); }
+
+		@Override
+		public boolean remove(int index) { throw readOnly(); }
+
+		@Override
+		public boolean addAll(Iterable<Integer> c) { throw readOnly(); }
+
+		@Override
+		public boolean removeAll(Iterable<Integer> c) { throw readOnly(); }
+
+		@Override
+		public boolean retainAll(Iterable<Integer> c) { throw readOnly(); }
+
+		@Override
+		public void clear() { throw readOnly(); }
+
+		private static UnsupportedOperationException readOnly() {
+			return new UnsupportedOperationException("Shared house selections are read-only!");
+		}
+	}
+}
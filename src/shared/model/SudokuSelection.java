@@ -1,16 +1,23 @@
 package shared.model;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 import shared.utility.RuntimeAssert;
 
 public class SudokuSelection implements Iterable<Integer> {
-	private boolean[] isIncluded = new boolean[81];
-	private int includeCount = 0;
+	/**Number of index bits held in the high word. Indices 0-63 live in the low word, 64-80 in the high word.*/
+	private static final int HIGH_BITS = 81 - 64;
+	private static final long HIGH_MASK = (1L << HIGH_BITS) - 1;
+
+	private long low = 0L;
+	private long high = 0L;
 
 	/**Construct an empty selection.*/
 	public SudokuSelection() {}
@@ -35,8 +42,19 @@ public class SudokuSelection implements Iterable<Integer> {
 	}
 	
 	public SudokuSelection(SudokuSelection _existing) throws NullPointerException {
-		isIncluded = Arrays.copyOf(_existing.isIncluded, 81);
-		includeCount = _existing.includeCount;
+		low = _existing.low;
+		high = _existing.high;
+	}
+
+	/**Construct a selection directly from its two bit words.
+	 * Bit n of low is index n, bit n of high is index 64 + n. Bits past index 80 are ignored.
+	 *
+	 * @param _low	Bits for indices 0-63.
+	 * @param _high	Bits for indices 64-80.
+	 */
+	SudokuSelection(long _low, long _high) {
+		low = _low;
+		high = _high & HIGH_MASK;
 	}
 	
 	/**Construct a selection from a mask where true values are part of the selection, and false are not. 
@@ -47,8 +65,13 @@ public class SudokuSelection implements Iterable<Integer> {
 	 */
 	public static SudokuSelection fromMask(boolean[] mask) {
 		SudokuSelection selection = new SudokuSelection();
-		selection.isIncluded = Arrays.copyOf(mask, 81);
-		selection.includeCount = selection.getSizeRecount();
+
+		int length = Math.min(mask.length, 81);
+		for (int i = 0; i < length; i++) {
+			if (mask[i]) {
+				selection.setBit(i);
+			}
+		}
 		
 		return selection;
 	}
@@ -58,86 +81,47 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return	The selection containing all cells.
 	 */
 	public static SudokuSelection all() {
-		SudokuSelection result = new SudokuSelection();
-		Arrays.fill(result.isIncluded, true);
-		result.includeCount = 81;
-
-		return result;
+		return new SudokuSelection(-1L, HIGH_MASK);
 	}
 
 	/**Construct a selection for the given row.
+	 * The result is a modifiable copy, use SudokuHouses.row for the shared read-only version.
 	 *
 	 * @param row	The row index to construct a selection for.
 	 * @return	The selection containing only the given row.
 	 */
 	public static SudokuSelection row(int row) {
-		RuntimeAssert.inRange(row, 0, 9);
-
-		SudokuSelection result = new SudokuSelection();
-		
-		int baseInd = row * 9;
-		for (int col = 0; col < 9; col++) {
-			int index = baseInd + col;
-			result.add(index);
-		}
-
-		return result;
+		return new SudokuSelection(SudokuHouses.row(row));
 	}
 
 	/**Construct a selection for the given column.
+	 * The result is a modifiable copy, use SudokuHouses.column for the shared read-only version.
 	 *
 	 * @param col	The column index to construct a selection for.
 	 * @return	The selection containing only the given column.
 	 */
 	public static SudokuSelection column(int col) {
-		RuntimeAssert.inRange(col, 0, 9);
-
-		SudokuSelection result = new SudokuSelection();
-		
-		int index = col;
-		while (index < 81) {
-			result.add(index);
-			index += 9;
-		}
-
-		return result;
+		return new SudokuSelection(SudokuHouses.column(col));
 	}
 
 	/**Construct a selection for the given square index.
+	 * The result is a modifiable copy, use SudokuHouses.square for the shared read-only version.
 	 *
 	 * @param sqr	The square index to construct a selection for.
 	 * @return	The selection containing only the given square.
 	 */
 	public static SudokuSelection square(int sqr) {
-		final int[] OFFSETS = {0, 1, 2, 9, 10, 11, 18, 19, 20};
-		RuntimeAssert.inRange(sqr, 0, 9);
-
-		SudokuSelection result = new SudokuSelection();
-
-		int squareX = sqr % 3;
-		int squareY = sqr / 3;
-
-		int baseIndex = squareY * 27 + squareX * 3;
-
-		for (int offsetIndex = 0; offsetIndex < 9; offsetIndex++) {
-			int index = baseIndex + OFFSETS[offsetIndex];
-			result.add(index);
-		}
-
-		return result;
+		return new SudokuSelection(SudokuHouses.square(sqr));
 	}
 
 	/**Get the selection containing all cells affected by the cell at the given index. Does not contain the index itself.
+	 * The result is a modifiable copy, use SudokuHouses.peers for the shared read-only version.
 	 *
 	 * @param index	Given index.
 	 * @return	Selection equivalent to the union between the given index's row, column, and square selections.
 	 */
 	public static SudokuSelection affectedBy(int index) {
-		int row = Sudoku.indexToRow(index);
-		int col = Sudoku.indexToColumn(index);
-		int sqr = Sudoku.indexToSquare(index);
-		
-		return row(row).getUnionWith(column(col)).getUnionWith(square(sqr)).getDifferenceWith(new SudokuSelection(index));
+		return new SudokuSelection(SudokuHouses.peers(index));
 	}
 
 	/**Retrieve a 81 element array representing the selection as a mask, where true values are part of the selection.
@@ -145,22 +129,42 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return	The mask array (boolean[81])
 	 */
 	public boolean[] getAsMask() {
-		return Arrays.copyOf(isIncluded, 81);
+		boolean[] mask = new boolean[81];
+
+		for (int i = 0; i < 81; i++) {
+			mask[i] = hasBit(i);
+		}
+
+		return mask;
+	}
+
+	/**Construct a selection from the two words returned by getLowBits and getHighBits.*/
+	public static SudokuSelection fromBits(long lowBits, long highBits) {
+		return new SudokuSelection(lowBits, highBits);
 	}
+
+	/**Get the bits for indices 0-63, where bit n is set if index n is part of the selection.*/
+	public long getLowBits() { return low; }
+
+	/**Get the bits for indices 64-80, where bit n is set if index 64 + n is part of the selection.*/
+	public long getHighBits() { return high; }
 	
+	/**Pick a uniformly random index from the selection.
+	 *
+	 * @param randomizer	Source of randomness.
+	 * @return	A random index that is part of the selection.
+	 * @throws IllegalArgumentException	thrown if the selection is empty.
+	 */
 	public int getRandom(Random randomizer) {
-		int chosenIndex = randomizer.nextInt(size());
-
-		int counter = 0;
-		for (Integer index : this) {
-			if (counter == chosenIndex) {
-				return index;
-			}
+		int chosenRank = randomizer.nextInt(size());
 
-			counter++;
+		int lowCount = Long.bitCount(low);
+		if (chosenRank < lowCount) {
+			return selectBit(low, chosenRank);
+		}
+		else {
+			return 64 + selectBit(high, chosenRank - lowCount);
 		}
-
-		throw new IllegalStateException("SudokuSelection.getRandom() has failed spectacularly!");
 	}
 
 	/**Get the union of this selection and another selection without modifying either selection.
@@ -169,10 +173,7 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return	The union of the selections (all indices from both are included)
 	 */
 	public SudokuSelection getUnionWith(SudokuSelection other) {
-		SudokuSelection joinedSet = new SudokuSelection(this);
-		joinedSet.addAll(other);
-
-		return joinedSet;
+		return new SudokuSelection(low | other.low, high | other.high);
 	}
 
 	/**Get the intersection of this selection and another selection without modifying either selection.
@@ -181,11 +182,7 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return	The intersection of the selections (only indices present in both are included)
 	 */
 	public SudokuSelection getIntersectionWith(SudokuSelection other) {
-		SudokuSelection slicedSet = new SudokuSelection(this);
-		slicedSet.retainAll(other);
-		//slicedSet.removeIf(index -> (!other.indices.contains(index)));//Remove all elements NOT present in other
-
-		return slicedSet;
+		return new SudokuSelection(low & other.low, high & other.high);
 	}
 
 	/**Get the difference between this selection and another selection without modifying either selection.
@@ -194,11 +191,25 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return	The difference of the selections (only indices present in this, but not in other are included)
 	 */
 	public SudokuSelection getDifferenceWith(SudokuSelection other) {
-		SudokuSelection diffedSet = new SudokuSelection(this);
-		//diffedSet.removeIf(index -> (other.indices.contains(index)));//Remove all elements present in other
-		diffedSet.removeAll(other);
+		return new SudokuSelection(low & ~other.low, high & ~other.high);
+	}
 
-		return diffedSet;
+	/**Count the indices present in both this selection and another, without creating a new selection.
+	 *
+	 * @param other	The selection to intersect with.
+	 * @return	The size the intersection of the selections would have.
+	 */
+	public int countIntersectionWith(SudokuSelection other) {
+		return Long.bitCount(low & other.low) + Long.bitCount(high & other.high);
+	}
+
+	/**Check if this selection and another have atleast one index in common.
+	 *
+	 * @param other	The selection to check against.
+	 * @return	true if the intersection of the selections is not empty.
+	 */
+	public boolean intersects(SudokuSelection other) {
+		return ((low & other.low) | (high & other.high)) != 0L;
 	}
 
 	/**Get the inverse of the current selection. Current selection is NOT modified.
@@ -206,67 +217,94 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return	The inverted selection.
 	 */
 	public SudokuSelection getInverse() {
-		return SudokuSelection.all().getDifferenceWith(this);
+		return new SudokuSelection(~low, ~high);
 	}
 
 	//--Collection methods----------------------------------------------------------
+	/**Get an iterator over the indices in ascending order. Use nextInt to avoid boxing each index.*/
 	@Override
-	public Iterator<Integer> iterator() {
+	public PrimitiveIterator.OfInt iterator() {
 		return new Iter(this);
 	}
+
+	/**Call an action for every index in ascending order, without boxing.
+	 *
+	 * @param action	Action to call with each index.
+	 */
+	public void forEachIndex(IntConsumer action) {
+		long remaining = low;
+		while (remaining != 0L) {
+			action.accept(Long.numberOfTrailingZeros(remaining));
+			remaining &= remaining - 1;
+		}
+
+		remaining = high;
+		while (remaining != 0L) {
+			action.accept(64 + Long.numberOfTrailingZeros(remaining));
+			remaining &= remaining - 1;
+		}
+	}
+
+	/**Get the indices as a sequential IntStream in ascending order.
+	 * The stream works on a copy of the selection's bits taken when this is called.
+	 */
+	public IntStream indices() {
+		int characteristics = Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+		return StreamSupport.intStream(Spliterators.spliterator(iterator(), size(), characteristics), false);
+	}
 	
-	public class Iter implements Iterator<Integer> {
-		SudokuSelection target;
-		int nextIncluded;
+	/**Iterates the indices of a selection in ascending order.
+	 * The iterator works on a copy of the selection's bits, so changes to the selection during iteration are not seen.
+	 */
+	public class Iter implements PrimitiveIterator.OfInt {
+		long remainingLow;
+		long remainingHigh;
 		
 		public Iter(SudokuSelection _target) {
-			target = _target;
-			nextIncluded = getNextIncluded(0);
+			remainingLow = _target.low;
+			remainingHigh = _target.high;
 		}
 		
 		@Override
 		public boolean hasNext() {
-			return nextIncluded >= 0;
+			return (remainingLow | remainingHigh) != 0L;
 		}
 
 		@Override
-		public Integer next() {
-			int result = nextIncluded;
-			
-			nextIncluded = getNextIncluded(nextIncluded + 1);
-			return result;
-		}
-		
-		private int getNextIncluded(int startingFrom) {
-			for (int i = startingFrom; i < 81; i++) {
-				if (target.isIncluded[i]) {
-					return i;
-				}
+		public int nextInt() {
+			if (remainingLow != 0L) {
+				int result = Long.numberOfTrailingZeros(remainingLow);
+				remainingLow &= remainingLow - 1;
+				return result;
 			}
-			
-			return -1;
+			else if (remainingHigh != 0L) {
+				int result = 64 + Long.numberOfTrailingZeros(remainingHigh);
+				remainingHigh &= remainingHigh - 1;
+				return result;
+			}
+
+			throw new NoSuchElementException();
 		}
 	}
 
 	public int size() {
-		return includeCount;
+		return Long.bitCount(low) + Long.bitCount(high);
 	}
 
 	public boolean isEmpty() {
-		return (size() == 0);
+		return (low | high) == 0L;
 	}
 
 	public boolean contains(int index) {
 		RuntimeAssert.inRange(index, 0, 81);
-		return isIncluded[index];
+		return hasBit(index);
 	}
 
 	public boolean add(int index) {
 		RuntimeAssert.inRange(index, 0, 81);
 		
-		if (!isIncluded[index]) {
-			isIncluded[index] = true;
-			includeCount++;
+		if (!hasBit(index)) {
+			setBit(index);
 			return true;
 		}
 		else {
@@ -277,9 +315,8 @@ public class SudokuSelection implements Iterable<Integer> {
 	public boolean remove(int index) {
 		RuntimeAssert.inRange(index, 0, 81);
 		
-		if (isIncluded[index]) {
-			isIncluded[index] = false;
-			includeCount--;
+		if (hasBit(index)) {
+			clearBit(index);
 			return true;
 		}
 		else {
@@ -288,6 +325,11 @@ public class SudokuSelection implements Iterable<Integer> {
 	}
 
 	public boolean containsAll(Iterable<Integer> c) {
+		if (c instanceof SudokuSelection) {
+			SudokuSelection other = (SudokuSelection)c;
+			return ((other.low & ~low) | (other.high & ~high)) == 0L;
+		}
+
 		for (Integer obj : c) {
 			if (!contains(obj)) {
 				return false;
@@ -299,48 +341,43 @@ public class SudokuSelection implements Iterable<Integer> {
 
 	/**Works as a union operation, where the current selection is modified.*/
 	public boolean addAll(Iterable<Integer> c) {
-		boolean modified = false; 
-		
-		for (Integer index : c) {
-			//Skip bad values
-			if ((index == null) || (index < 0) || (index >= 81)) {
-				continue;
-			}
-			
-			modified |= add(index);
-		}
+		SudokuSelection other = toSelection(c);
+		long oldLow = low;
+		long oldHigh = high;
+
+		low |= other.low;
+		high |= other.high;
 		
-		return modified;
+		return (low != oldLow) || (high != oldHigh);
 	}
 
 	/**Works as a difference operation, where the current selection is modified.*/
 	public boolean removeAll(Iterable<Integer> c) {
-		boolean modified = false;
-		
-		for (Integer index : toAcceptableIndices(c)) {
-			modified |= remove(index);
-		}
+		SudokuSelection other = toSelection(c);
+		long oldLow = low;
+		long oldHigh = high;
+
+		low &= ~other.low;
+		high &= ~other.high;
 		
-		return modified;
+		return (low != oldLow) || (high != oldHigh);
 	}
 
 	/**Works as an intersection operation, where the current selection is modified.*/
 	public boolean retainAll(Iterable<Integer> c) {
-		boolean modified = false;
-		
-		List<Integer> retained = toAcceptableIndices(c);
-		for (int i = 0; i < 81; i++) {
-			if (!retained.contains(i)) {
-				modified |= remove(i);
-			}
-		}
+		SudokuSelection other = toSelection(c);
+		long oldLow = low;
+		long oldHigh = high;
+
+		low &= other.low;
+		high &= other.high;
 		
-		return modified;
+		return (low != oldLow) || (high != oldHigh);
 	}
 
 	public void clear() {
-		Arrays.fill(isIncluded, false);
-		includeCount = 0;
+		low = 0L;
+		high = 0L;
 	}
 	
 	/**Recount the number of indices included in the selection. Does not change this selection.
@@ -348,30 +385,85 @@ public class SudokuSelection implements Iterable<Integer> {
 	 * @return
 	 */
 	public int getSizeRecount() {
-		int recount = 0;
-		for (boolean included : isIncluded) {
-			if (included) {
-				recount++;
-			}
+		return size();
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(low) * 31 + Long.hashCode(high);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof SudokuSelection)) {
+			return false;
 		}
-		
-		return recount;
+
+		SudokuSelection other = (SudokuSelection)o;
+		return (low == other.low) && (high == other.high);
+	}
+
+	//--Bit helpers-----------------------------------------------------------------
+	private boolean hasBit(int index) {
+		if (index < 64) {
+			return (low & (1L << index)) != 0L;
+		}
+		else {
+			return (high & (1L << (index - 64))) != 0L;
+		}
+	}
+
+	private void setBit(int index) {
+		if (index < 64) {
+			low |= 1L << index;
+		}
+		else {
+			high |= 1L << (index - 64);
+		}
+	}
+
+	private void clearBit(int index) {
+		if (index < 64) {
+			low &= ~(1L << index);
+		}
+		else {
+			high &= ~(1L << (index - 64));
+		}
+	}
+
+	/**Find the position of the set bit with the given rank, counting from the least significant bit.
+	 *
+	 * @param word	The word to search.
+	 * @param rank	Number of set bits to skip (0 gives the lowest set bit).
+	 * @return		Bit position of the chosen set bit.
+	 */
+	private static int selectBit(long word, int rank) {
+		for (int i = 0; i < rank; i++) {
+			word &= word - 1;
+		}
+
+		return Long.numberOfTrailingZeros(word);
 	}
 	
-	/**Filter out all null values, and values that can't be converted to an integer in range 0 (inclusive) to 81 (exclusive)
+	/**Convert an iterable of indices to a selection. Null values and values outside range 0 (inclusive) to 81 (exclusive) are skipped.
+	 * Selections are returned as they are, without copying.
 	 * 
 	 * @param collection	Source collection.
-	 * @return				Filtered list of indices that aren't null, and are in range 0 (inclusive) to 81 (exclusive)
+	 * @return				Selection of the acceptable indices in the collection.
 	 */
-	private List<Integer> toAcceptableIndices(Iterable<Integer> collection) {
-		List<Integer> acceptable = new ArrayList<Integer>();
+	private static SudokuSelection toSelection(Iterable<Integer> collection) {
+		if (collection instanceof SudokuSelection) {
+			return (SudokuSelection)collection;
+		}
+
+		SudokuSelection acceptable = new SudokuSelection();
 		
 		for (Integer candidate : collection) {
 			if ((candidate == null) || (candidate < 0) || (candidate >= 81)) {
 				continue;
 			}
 			
-			acceptable.add(candidate);
+			acceptable.setBit(candidate);
 		}
 		
 		return acceptable;
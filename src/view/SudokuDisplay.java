@@ -2,6 +2,7 @@ package view;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.PrimitiveIterator;
 
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -16,6 +17,7 @@ import javafx.scene.layout.GridPane;
 import shared.model.ASudokuFormatter;
 import shared.model.ISudokuDisplayObserver;
 import shared.model.Sudoku;
+import shared.model.SudokuSelection;
 
 import shared.utility.RuntimeAssert;
 
@@ -94,19 +96,21 @@ public class SudokuDisplay extends GridPane {
 		return cells[cellIndex].removeStyle(styleClass);
 	}
 	
-	public boolean highlight(Iterable<Integer> selection, String styleClass) {
+	public boolean highlight(SudokuSelection selection, String styleClass) {
 		boolean madeChange = false;
-		for (Integer index : selection) {
-			madeChange |= addCellStyle(index, styleClass);
+		PrimitiveIterator.OfInt indices = selection.iterator();
+		while (indices.hasNext()) {
+			madeChange |= addCellStyle(indices.nextInt(), styleClass);
 		}
 		
 		return madeChange;
 	}
 	
-	public boolean clearHighlight(Iterable<Integer> selection, String styleClass) {
+	public boolean clearHighlight(SudokuSelection selection, String styleClass) {
 		boolean madeChange = false;
-		for (Integer index : selection) {
-			madeChange |= removeCellStyle(index, styleClass);
+		PrimitiveIterator.OfInt indices = selection.iterator();
+		while (indices.hasNext()) {
+			madeChange |= removeCellStyle(indices.nextInt(), styleClass);
 		}
 		
 		return madeChange;
@@ -118,10 +122,8 @@ public class SudokuDisplay extends GridPane {
 		getField(cellIndex).setEditable(editable);
 	}
 	
-	public void setCellsEditable(Iterable<Integer> selection, boolean editable) {
-		for (Integer index : selection) {
-			setCellEditable(index, editable);
-		}
+	public void setCellsEditable(SudokuSelection selection, boolean editable) {
+		selection.forEachIndex(index -> setCellEditable(index, editable));
 	}
 	
 	/**Display a sudoku, and clear all notes. Equivalent to display(Sudoku sudoku, boolean clearNotes = true)